@@ -29,9 +29,14 @@ import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class AnagramDictionary {
 
@@ -42,7 +47,16 @@ public class AnagramDictionary {
 
     //private ArrayList<String> wordList = new ArrayList<>();  // ArrayList implementation
     private HashSet<String> wordSet = new HashSet<>();
-    private HashMap<String, ArrayList<String>> lettersToWord = new HashMap<>();
+
+    private AnagramGroups anagramGroups = new AnagramGroups();
+    // The sorted letters of every group, for finding groups with more letters than a word.
+    private SignatureTrie signatureTrie = new SignatureTrie();
+
+    // Words with at least MIN_NUM_ANAGRAMS anagrams with one more letter, by length. Entry i holds
+    // the words of length DEFAULT_WORD_LENGTH + i.
+    private ArrayList<ArrayList<String>> startersByLength = new ArrayList<>();
+    // The length of the next starter word. It grows by one each game until MAX_WORD_LENGTH.
+    private int wordLength = DEFAULT_WORD_LENGTH;
 
     public AnagramDictionary(InputStream wordListStream) throws IOException {
         Log.d("Constructor", "reading input dictionary");
@@ -55,6 +69,7 @@ public class AnagramDictionary {
                 addWordToDict(word);
             }
         }
+        buildStarterPool();
     }
 
     @VisibleForTesting
@@ -63,20 +78,53 @@ public class AnagramDictionary {
         for (int i = 0; i < words.length; i++) {
             addWordToDict(words[i]);
         }
+        buildStarterPool();
+    }
+
+    // Used by Builder, which fills in the dictionary itself.
+    private AnagramDictionary() {
     }
 
     private void addWordToDict(String word) {
         wordSet.add(word);
-        String letters = sortLetters(word);
-        if (lettersToWord.containsKey(letters)) {
-            lettersToWord.get(letters).add(word);
-        } else {
-            ArrayList<String> newList = new ArrayList<String>();
-            newList.add(word);
-            lettersToWord.put(letters, newList);
+        int groupCount = anagramGroups.size();
+        int group = anagramGroups.add(word, AnagramGroups.getSignature(word));
+        if (anagramGroups.size() > groupCount) {
+            addGroupToTrie(word, group);
+        }
+    }
+
+    /**
+     * Adds words[start] up to words[end - 1], which have already been sorted into anagram groups.
+     * Adding the chunks of a word list in order gives exactly the same dictionary as adding its
+     * words one by one.
+     */
+    private void addChunkToDict(String[] words, int start, int end, AnagramGroups chunkGroups) {
+        for (int i = start; i < end; i++) {
+            wordSet.add(words[i]);
+        }
+        for (int i = 0; i < chunkGroups.size(); i++) {
+            ArrayList<String> groupWords = chunkGroups.get(i);
+            int groupCount = anagramGroups.size();
+            int group = anagramGroups.addAll(groupWords,
+                    AnagramGroups.getSignature(groupWords.get(0)));
+            if (anagramGroups.size() > groupCount) {
+                addGroupToTrie(groupWords.get(0), group);
+            }
         }
     }
 
+    private void addGroupToTrie(String word, int group) {
+        char[] letters = word.toCharArray();
+        Arrays.sort(letters);
+        signatureTrie.add(letters, group);
+    }
+
+    @VisibleForTesting
+    ArrayList<ArrayList<String>> getAnagramGroups() {
+        return anagramGroups.getAll();
+    }
+
     /**
      * Asserts that the given word is in the dictionary and isn't formed by adding a letter to the
      * start or end of the base word.
@@ -105,9 +153,10 @@ public class AnagramDictionary {
         if (targetWord == null || targetWord.equals("")) {
             return null;
         }
-        String letters = sortLetters(targetWord);
-        if (lettersToWord.containsKey(letters)) {
-            return lettersToWord.get(letters);
+        int group = anagramGroups.find(AnagramGroups.getSignature(targetWord), targetWord,
+                AnagramGroups.NO_EXTRA_LETTER);
+        if (group != AnagramGroups.NOT_FOUND) {
+            return anagramGroups.get(group);
         }
         return null;
     }
@@ -129,11 +178,7 @@ public class AnagramDictionary {
     static String sortLetters(String input) {
         char[] chars = input.toCharArray();
         Arrays.sort(chars);
-        String result = "";
-        for (char c : chars) {
-            result += c;
-        }
-        return result;
+        return new String(chars);
     }
 
     /**
@@ -141,25 +186,211 @@ public class AnagramDictionary {
      */
     public ArrayList<String> getAnagramsWithOneMoreLetter(String word) {
         ArrayList<String> result = new ArrayList<String>();
+        long signature = AnagramGroups.getSignature(word);
         for (char c = 'a'; c <= 'z'; c++) {
-            ArrayList<String> next = getAnagrams(word + c);
-            if (next != null) {
-                result.addAll(next);
+            int group = anagramGroups.find(signature + AnagramGroups.getLetterHash(c), word, c);
+            if (group != AnagramGroups.NOT_FOUND) {
+                // Add one at a time, as addAll would copy the group into a temporary array.
+                ArrayList<String> next = anagramGroups.get(group);
+                for (int i = 0; i < next.size(); i++) {
+                    result.add(next.get(i));
+                }
             }
         }
         return result;
     }
 
     /**
-     * Picks a starter word with at least MIN_NUM_ANAGRAMS anagrams.
+     * Gets all the words that use every letter of word plus exactly k more letters from 'a' to
+     * 'z'. With k = 1 this finds the same words as getAnagramsWithOneMoreLetter. Only groups
+     * whose letters include all of word's are visited, so the cost does not grow as 26^k.
+     */
+    public ArrayList<String> getAnagramsWithKMoreLetters(String word, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        char[] letters = word.toCharArray();
+        Arrays.sort(letters);
+        ArrayList<String> result = new ArrayList<String>();
+        signatureTrie.collectSupersets(letters, k, anagramGroups.getAll(), result);
+        return result;
+    }
+
+    /**
+     * Finds every word that can be spelled with some of the given letters, using each letter at
+     * most as many times as it is given, like the words playable from a Scrabble rack.
+     * @param letters The available letters, in any order.
+     * @param minLen The shortest word to include.
+     */
+    public ArrayList<String> findWordsFormableFrom(String letters, int minLen) {
+        ArrayList<String> result = new ArrayList<String>();
+        if (letters == null) {
+            return result;
+        }
+        char[] sortedLetters = letters.toCharArray();
+        Arrays.sort(sortedLetters);
+        signatureTrie.collectSubsets(sortedLetters, minLen, anagramGroups.getAll(), result);
+        return result;
+    }
+
+    /**
+     * Finds the starter words of every length once, so that picking one later is just a random
+     * index. All the words in an anagram group have the same anagrams with one more letter, so
+     * each group is only counted once.
+     */
+    private void buildStarterPool() {
+        for (int length = DEFAULT_WORD_LENGTH; length <= MAX_WORD_LENGTH; length++) {
+            startersByLength.add(new ArrayList<String>());
+        }
+        for (int i = 0; i < anagramGroups.size(); i++) {
+            ArrayList<String> group = anagramGroups.get(i);
+            int length = group.get(0).length();
+            if (length >= DEFAULT_WORD_LENGTH && length <= MAX_WORD_LENGTH
+                    && countAnagramsWithOneMoreLetter(group.get(0)) >= MIN_NUM_ANAGRAMS) {
+                startersByLength.get(length - DEFAULT_WORD_LENGTH).addAll(group);
+            }
+        }
+    }
+
+    private int countAnagramsWithOneMoreLetter(String word) {
+        int count = 0;
+        long signature = AnagramGroups.getSignature(word);
+        for (char c = 'a'; c <= 'z'; c++) {
+            int group = anagramGroups.find(signature + AnagramGroups.getLetterHash(c), word, c);
+            if (group != AnagramGroups.NOT_FOUND) {
+                count += anagramGroups.get(group).size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Picks a starter word with at least MIN_NUM_ANAGRAMS anagrams with one more letter. The
+     * first game uses a word of DEFAULT_WORD_LENGTH letters, and each game after that uses one
+     * more letter, up to MAX_WORD_LENGTH.
+     * @return The starter word, or null if the dictionary has none at all.
      */
     public String pickGoodStarterWord() {
-        Object[] keys = lettersToWord.keySet().toArray();
-        String next = (String) keys[random.nextInt(keys.length)];
-        while (lettersToWord.get(next).size() < MIN_NUM_ANAGRAMS) {
-            next = (String) keys[random.nextInt(keys.length)];
+        String starter = pickGoodStarterWord(wordLength);
+        if (wordLength < MAX_WORD_LENGTH) {
+            wordLength++;
+        }
+        return starter;
+    }
+
+    /**
+     * Picks a starter word of the given length with at least MIN_NUM_ANAGRAMS anagrams with one
+     * more letter. If there are no such words of that length, the nearest length with some is
+     * used instead, preferring longer words.
+     * @return The starter word, or null if the dictionary has none at all.
+     */
+    public String pickGoodStarterWord(int length) {
+        int index = Math.min(Math.max(length, DEFAULT_WORD_LENGTH), MAX_WORD_LENGTH)
+                - DEFAULT_WORD_LENGTH;
+        for (int distance = 0; distance < startersByLength.size(); distance++) {
+            if (hasStarters(index + distance)) {
+                return pickStarter(index + distance);
+            }
+            if (hasStarters(index - distance)) {
+                return pickStarter(index - distance);
+            }
+        }
+        return null;
+    }
+
+    private boolean hasStarters(int index) {
+        return index >= 0 && index < startersByLength.size()
+                && !startersByLength.get(index).isEmpty();
+    }
+
+    private String pickStarter(int index) {
+        ArrayList<String> starters = startersByLength.get(index);
+        return starters.get(random.nextInt(starters.size()));
+    }
+
+    /**
+     * Starts the word length progression over from DEFAULT_WORD_LENGTH.
+     */
+    public void resetWordLength() {
+        wordLength = DEFAULT_WORD_LENGTH;
+    }
+
+    /**
+     * Builds an AnagramDictionary, optionally sorting the words into anagram groups on several
+     * threads. The word list is split into one chunk per thread, each chunk is grouped on its own,
+     * and the chunks are merged in order, so the result is the same for any number of threads.
+     */
+    public static class Builder {
+        private int threadCount = 1;
+
+        public Builder setThreadCount(int threadCount) {
+            if (threadCount < 1) {
+                throw new IllegalArgumentException("threadCount must be positive: " + threadCount);
+            }
+            this.threadCount = threadCount;
+            return this;
+        }
+
+        public AnagramDictionary build(InputStream wordListStream) throws IOException {
+            Log.d("Builder", "reading input dictionary");
+            BufferedReader in = new BufferedReader(new InputStreamReader(wordListStream));
+            List<String> words = new ArrayList<>();
+            String line;
+            while((line = in.readLine()) != null) {
+                String word = line.trim();
+                if (!TextUtils.isEmpty(word)) {
+                    words.add(word);
+                }
+            }
+            return build(words.toArray(new String[words.size()]));
+        }
+
+        @VisibleForTesting
+        public AnagramDictionary build(final String[] words) {
+            AnagramDictionary dictionary = new AnagramDictionary();
+            if (threadCount == 1) {
+                for (String word : words) {
+                    dictionary.addWordToDict(word);
+                }
+                dictionary.buildStarterPool();
+                return dictionary;
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+            try {
+                List<Future<AnagramGroups>> chunks = new ArrayList<>();
+                for (int i = 0; i < threadCount; i++) {
+                    final int start = getChunkStart(words.length, i);
+                    final int end = getChunkStart(words.length, i + 1);
+                    chunks.add(executor.submit(new Callable<AnagramGroups>() {
+                        @Override
+                        public AnagramGroups call() {
+                            AnagramGroups groups = new AnagramGroups();
+                            for (int j = start; j < end; j++) {
+                                groups.add(words[j], AnagramGroups.getSignature(words[j]));
+                            }
+                            return groups;
+                        }
+                    }));
+                }
+                for (int i = 0; i < threadCount; i++) {
+                    dictionary.addChunkToDict(words, getChunkStart(words.length, i),
+                            getChunkStart(words.length, i + 1), chunks.get(i).get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while building dictionary", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Could not build dictionary", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+            dictionary.buildStarterPool();
+            return dictionary;
+        }
+
+        private int getChunkStart(int wordCount, int chunk) {
+            return (int) ((long) wordCount * chunk / threadCount);
         }
-        ArrayList<String> words = lettersToWord.get(next);
-        return words.get(random.nextInt(words.size()));
     }
 }
@@ -0,0 +1,191 @@
+/*
+ *  Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.google.engedu.anagrams;
+
+import android.support.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Groups of words that are anagrams of each other, in the order each group was first seen.
+ *
+ * Groups are looked up by the signature of their letters: the sum of a well-mixed hash of each
+ * letter. All anagrams share a signature, and the signature of a word plus one letter is the
+ * word's signature plus that letter's hash, so lookups never need to build a sorted String. The
+ * table uses open addressing with linear probing; signatures that collide are told apart by
+ * comparing letters.
+ */
+class AnagramGroups {
+    static final int NOT_FOUND = -1;
+    static final char NO_EXTRA_LETTER = '\0';
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private ArrayList<ArrayList<String>> groups = new ArrayList<>();
+    private long[] signatures = new long[INITIAL_CAPACITY];
+    private int[] groupIndexes = newEmptySlots(INITIAL_CAPACITY);
+
+    int size() {
+        return groups.size();
+    }
+
+    ArrayList<String> get(int group) {
+        return groups.get(group);
+    }
+
+    ArrayList<ArrayList<String>> getAll() {
+        return groups;
+    }
+
+    /**
+     * Adds a word to the group of its anagrams, starting a new group if there is none yet.
+     * @return The index of the word's group.
+     */
+    int add(String word, long signature) {
+        int group = find(signature, word, NO_EXTRA_LETTER);
+        if (group != NOT_FOUND) {
+            groups.get(group).add(word);
+            return group;
+        }
+        ArrayList<String> newList = new ArrayList<String>();
+        newList.add(word);
+        return addGroup(newList, signature);
+    }
+
+    /**
+     * Adds a whole group of anagrams, e.g. one collected from another AnagramGroups. If there is
+     * already a group of these anagrams, the words are appended to it. Otherwise the list itself
+     * becomes the new group, so it must not be changed afterwards.
+     * @return The index of the group.
+     */
+    int addAll(ArrayList<String> words, long signature) {
+        int group = find(signature, words.get(0), NO_EXTRA_LETTER);
+        if (group != NOT_FOUND) {
+            groups.get(group).addAll(words);
+            return group;
+        }
+        return addGroup(words, signature);
+    }
+
+    private int addGroup(ArrayList<String> words, long signature) {
+        groups.add(words);
+        if (groups.size() * 2 > signatures.length) {
+            resizeTable(signatures.length * 2);
+        }
+        insertGroup(signature, groups.size() - 1);
+        return groups.size() - 1;
+    }
+
+    private static int[] newEmptySlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, NOT_FOUND);
+        return slots;
+    }
+
+    private static int getSlot(long signature, int capacity) {
+        return (int) (signature ^ (signature >>> 32)) & (capacity - 1);
+    }
+
+    private void insertGroup(long signature, int group) {
+        int mask = signatures.length - 1;
+        int slot = getSlot(signature, signatures.length);
+        while (groupIndexes[slot] != NOT_FOUND) {
+            slot = (slot + 1) & mask;
+        }
+        signatures[slot] = signature;
+        groupIndexes[slot] = group;
+    }
+
+    private void resizeTable(int capacity) {
+        long[] oldSignatures = signatures;
+        int[] oldGroupIndexes = groupIndexes;
+        signatures = new long[capacity];
+        groupIndexes = newEmptySlots(capacity);
+        for (int i = 0; i < oldSignatures.length; i++) {
+            if (oldGroupIndexes[i] != NOT_FOUND) {
+                insertGroup(oldSignatures[i], oldGroupIndexes[i]);
+            }
+        }
+    }
+
+    /**
+     * Finds the group of anagrams of word plus the extra letter (if it is not NO_EXTRA_LETTER),
+     * given the signature of those letters.
+     * @return The index of the group, or NOT_FOUND if there is none.
+     */
+    int find(long signature, String word, char extra) {
+        int mask = signatures.length - 1;
+        int slot = getSlot(signature, signatures.length);
+        while (groupIndexes[slot] != NOT_FOUND) {
+            if (signatures[slot] == signature
+                    && hasSameLetters(groups.get(groupIndexes[slot]).get(0), word, extra)) {
+                return groupIndexes[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Hashes a single letter. This is the finalizer of the SplitMix64 generator, which spreads
+     * nearby chars across all 64 bits so that sums of them rarely collide.
+     */
+    static long getLetterHash(char c) {
+        long z = (c + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @VisibleForTesting
+    static long getSignature(String word) {
+        long signature = 0;
+        for (int i = 0; i < word.length(); i++) {
+            signature += getLetterHash(word.charAt(i));
+        }
+        return signature;
+    }
+
+    /**
+     * Checks whether candidate uses exactly the letters of word plus the extra letter, without
+     * allocating anything. Words are short, so counting each letter in both is cheap enough.
+     */
+    private static boolean hasSameLetters(String candidate, String word, char extra) {
+        int extraLength = extra == NO_EXTRA_LETTER ? 0 : 1;
+        if (candidate.length() != word.length() + extraLength) {
+            return false;
+        }
+        for (int i = 0; i < candidate.length(); i++) {
+            char c = candidate.charAt(i);
+            int expected = countLetter(word, c) + (c == extra ? 1 : 0);
+            if (countLetter(candidate, c) != expected) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int countLetter(String word, char c) {
+        int count = 0;
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) == c) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -19,12 +19,15 @@ package com.google.engedu.anagrams;
 import android.content.Context;
 import android.content.res.AssetManager;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.design.widget.FloatingActionButton;
 import android.support.v7.app.AppCompatActivity;
 import android.support.v7.widget.Toolbar;
 import android.text.Html;
 import android.text.InputType;
 import android.text.TextUtils;
+import android.util.Log;
 import android.view.KeyEvent;
 import android.view.Menu;
 import android.view.MenuItem;
@@ -38,29 +41,79 @@ import android.widget.Toast;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.concurrent.Executor;
 
 
 public class AnagramsActivity extends AppCompatActivity {
 
     public static final String START_MESSAGE = "Find as many words as possible that can be formed by adding one letter to <big>%s</big> (but that do not contain the substring %s).";
+    private static final String TAG = "AnagramsActivity";
+    private static final String LOADING = "Loading dictionary...";
+    private static final String LOAD_FAILED = "Could not load dictionary";
+    private DictionaryLoader<AnagramDictionary> dictionaryLoader;
+    // Null until the dictionary has loaded.
     private AnagramDictionary dictionary;
+    // Set if a game should start as soon as the dictionary has loaded.
+    private boolean startPending = false;
+    // Set if the dictionary could not be loaded, so that nothing waits for it any more.
+    private boolean loadFailed = false;
     private String currentWord;
     private ArrayList<String> anagrams;
 
+    // Runs dictionary callbacks on the main thread.
+    private final Executor mainThread = new Executor() {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(Runnable command) {
+            handler.post(command);
+        }
+    };
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_anagrams);
         Toolbar toolbar = (Toolbar) findViewById(R.id.toolbar);
         setSupportActionBar(toolbar);
-        AssetManager assetManager = getAssets();
-        try {
-            InputStream inputStream = assetManager.open("words.txt");
-            dictionary = new AnagramDictionary(inputStream);
-        } catch (IOException e) {
-            Toast toast = Toast.makeText(this, "Could not load dictionary", Toast.LENGTH_LONG);
-            toast.show();
-        }
+        final AssetManager assetManager = getAssets();
+        // Build the dictionary in the background, so that the first frame isn't held up by it.
+        // Pressing play before it is ready starts the game once it is.
+        dictionaryLoader = new DictionaryLoader<>(
+                new DictionaryLoader.Source<AnagramDictionary>() {
+                    @Override
+                    public AnagramDictionary load() throws IOException {
+                        InputStream inputStream = assetManager.open("words.txt");
+                        try {
+                            // AnagramDictionary.Builder can group the words on several threads,
+                            // but has not yet been shown to be faster on a phone.
+                            return new AnagramDictionary(inputStream);
+                        } finally {
+                            inputStream.close();
+                        }
+                    }
+                }).start();
+        dictionaryLoader.whenLoaded(new DictionaryLoader.Callback<AnagramDictionary>() {
+            @Override
+            public void onLoaded(AnagramDictionary loaded) {
+                dictionary = loaded;
+                if (startPending) {
+                    startPending = false;
+                    defaultAction(null);
+                }
+            }
+
+            @Override
+            public void onFailed(IOException e) {
+                Log.e(TAG, "Could not load dictionary", e);
+                loadFailed = true;
+                startPending = false;
+                ((TextView) findViewById(R.id.gameStatusView)).setText(LOAD_FAILED);
+                Toast toast = Toast.makeText(AnagramsActivity.this, LOAD_FAILED,
+                        Toast.LENGTH_LONG);
+                toast.show();
+            }
+        }, mainThread);
         // Set up the EditText box to process the content of the box when the user hits 'enter'
         final EditText editText = (EditText) findViewById(R.id.editText);
         editText.setRawInputType(InputType.TYPE_CLASS_TEXT);
@@ -97,6 +150,12 @@ public class AnagramsActivity extends AppCompatActivity {
         fab.show();
     }
 
+    @Override
+    protected void onDestroy() {
+        dictionaryLoader.cancel();
+        super.onDestroy();
+    }
+
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         // Inflate the menu; this adds items to the action bar if it is present.
@@ -124,6 +183,12 @@ public class AnagramsActivity extends AppCompatActivity {
         FloatingActionButton fab = (FloatingActionButton) findViewById(R.id.fab);
         EditText editText = (EditText) findViewById(R.id.editText);
         TextView resultView = (TextView) findViewById(R.id.resultView);
+        if (dictionary == null) {
+            // Start the game once the dictionary has loaded, unless it could not be.
+            startPending = !loadFailed;
+            gameStatus.setText(loadFailed ? LOAD_FAILED : LOADING);
+            return true;
+        }
         if (currentWord == null) {
             currentWord = dictionary.pickGoodStarterWord();
             anagrams = dictionary.getAnagramsWithOneMoreLetter(currentWord);
@@ -0,0 +1,179 @@
+/*
+ *  Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.google.engedu.anagrams;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Builds a dictionary on a background thread and hands it over once it is ready, so that an
+ * activity can draw its first frame and take input while the word list is still being read.
+ *
+ * This is a small stand-in for CompletableFuture, which needs API 24. The load runs once. get()
+ * blocks until it is done, getNow() never blocks, and whenLoaded() callbacks run on the executor
+ * they were given (usually one that posts to the main thread) as soon as the dictionary is ready,
+ * or straight away if it already is.
+ */
+public class DictionaryLoader<T> {
+
+    /**
+     * Builds the dictionary. Called once, on the loading thread.
+     */
+    public interface Source<T> {
+        T load() throws IOException;
+    }
+
+    public interface Callback<T> {
+        void onLoaded(T dictionary);
+        void onFailed(IOException e);
+    }
+
+    private final FutureTask<T> task;
+    // Callbacks waiting for the load to finish. Guarded by this.
+    private List<Runnable> pending = new ArrayList<>();
+
+    public DictionaryLoader(final Source<T> source) {
+        task = new FutureTask<T>(new Callable<T>() {
+            @Override
+            public T call() throws IOException {
+                return source.load();
+            }
+        }) {
+            @Override
+            protected void done() {
+                List<Runnable> callbacks;
+                synchronized (DictionaryLoader.this) {
+                    callbacks = pending;
+                    pending = null;
+                }
+                for (Runnable callback : callbacks) {
+                    callback.run();
+                }
+            }
+        };
+    }
+
+    /**
+     * Starts loading on a new background thread.
+     * @return This loader.
+     */
+    public DictionaryLoader<T> start() {
+        Thread thread = new Thread(task, "DictionaryLoader");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        thread.start();
+        return this;
+    }
+
+    /**
+     * Starts loading on the given executor.
+     * @return This loader.
+     */
+    public DictionaryLoader<T> start(Executor executor) {
+        executor.execute(task);
+        return this;
+    }
+
+    public boolean isDone() {
+        return task.isDone();
+    }
+
+    /**
+     * @return The dictionary if it has loaded, or null if it is still loading or failed to load.
+     */
+    public T getNow() {
+        if (!task.isDone()) {
+            return null;
+        }
+        try {
+            return get();
+        } catch (IOException | InterruptedException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Waits for the dictionary to load.
+     * @throws IOException If it could not be loaded.
+     */
+    public T get() throws IOException, InterruptedException {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Could not load dictionary", e.getCause());
+        } catch (CancellationException e) {
+            throw new IOException("Dictionary loading was cancelled", e);
+        }
+    }
+
+    /**
+     * Calls back on executor with the dictionary once it has loaded, or with the error if it
+     * could not be. Callbacks run in the order they were added.
+     */
+    public void whenLoaded(final Callback<T> callback, final Executor executor) {
+        Runnable deliver = new Runnable() {
+            @Override
+            public void run() {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        T dictionary;
+                        try {
+                            dictionary = get();
+                        } catch (IOException e) {
+                            callback.onFailed(e);
+                            return;
+                        } catch (InterruptedException e) {
+                            // The load is already done, so get() does not wait.
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        callback.onLoaded(dictionary);
+                    }
+                });
+            }
+        };
+        synchronized (this) {
+            if (pending != null) {
+                pending.add(deliver);
+                return;
+            }
+        }
+        deliver.run();
+    }
+
+    /**
+     * Stops loading if it has not finished, e.g. when the activity goes away. Callbacks still
+     * waiting for the load are dropped, and get() throws from then on.
+     */
+    public void cancel() {
+        synchronized (this) {
+            if (pending != null) {
+                pending.clear();
+            }
+        }
+        task.cancel(true);
+    }
+}
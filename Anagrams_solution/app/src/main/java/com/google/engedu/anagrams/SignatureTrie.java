@@ -0,0 +1,173 @@
+/*
+ *  Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.google.engedu.anagrams;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A trie over the sorted letters of each anagram group, e.g. "opst" for the group of "pots",
+ * "spot" and "stop". Because every path spells its letters in sorted order, the groups that use
+ * all the letters of a word plus some extra ones can be found by walking only the paths that
+ * contain the word's letters, without guessing which letters to add. Likewise, the words that can
+ * be formed from a rack of letters are found by walking only the paths that are a subsequence of
+ * the sorted rack.
+ *
+ * Nodes live in flat arrays. The children of a node form a linked list through nextSibling,
+ * kept sorted by label.
+ */
+class SignatureTrie {
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    private char[] labels = new char[1024];
+    private int[] firstChild = new int[1024];
+    private int[] nextSibling = new int[1024];
+    // The index of the anagram group whose sorted letters end at each node, or NONE.
+    private int[] groups = new int[1024];
+    private int nodeCount;
+
+    SignatureTrie() {
+        nodeCount = 1;
+        firstChild[ROOT] = NONE;
+        nextSibling[ROOT] = NONE;
+        groups[ROOT] = NONE;
+    }
+
+    /**
+     * Adds the sorted letters of an anagram group.
+     */
+    void add(char[] sortedLetters, int group) {
+        int node = ROOT;
+        for (char c : sortedLetters) {
+            node = getOrAddChild(node, c);
+        }
+        groups[node] = group;
+    }
+
+    private int getOrAddChild(int node, char c) {
+        int previous = NONE;
+        int child = firstChild[node];
+        while (child != NONE && labels[child] < c) {
+            previous = child;
+            child = nextSibling[child];
+        }
+        if (child != NONE && labels[child] == c) {
+            return child;
+        }
+        if (nodeCount == labels.length) {
+            int capacity = labels.length * 2;
+            labels = Arrays.copyOf(labels, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            groups = Arrays.copyOf(groups, capacity);
+        }
+        int added = nodeCount++;
+        labels[added] = c;
+        firstChild[added] = NONE;
+        nextSibling[added] = child;
+        groups[added] = NONE;
+        if (previous == NONE) {
+            firstChild[node] = added;
+        } else {
+            nextSibling[previous] = added;
+        }
+        return added;
+    }
+
+    /**
+     * Adds to result the words of every group that has all of sortedLetters plus exactly
+     * extraLetters more letters from 'a' to 'z'.
+     * @param groupWords The words of each group, indexed as passed to add.
+     */
+    void collectSupersets(char[] sortedLetters, int extraLetters,
+                          List<ArrayList<String>> groupWords, ArrayList<String> result) {
+        collectSupersets(ROOT, sortedLetters, 0, extraLetters, groupWords, result);
+    }
+
+    private void collectSupersets(int node, char[] sortedLetters, int matched, int extraLetters,
+                                  List<ArrayList<String>> groupWords, ArrayList<String> result) {
+        if (matched == sortedLetters.length && extraLetters == 0) {
+            if (groups[node] != NONE) {
+                ArrayList<String> words = groupWords.get(groups[node]);
+                for (int i = 0; i < words.size(); i++) {
+                    result.add(words.get(i));
+                }
+            }
+            return;
+        }
+        // Once all the word's letters are matched, every remaining letter is an extra one.
+        char required = matched < sortedLetters.length
+                ? sortedLetters[matched] : Character.MAX_VALUE;
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            char c = labels[child];
+            if (c == required) {
+                // Using the word's own letter first is always possible, so there is no need to
+                // also try treating it as an extra letter.
+                collectSupersets(child, sortedLetters, matched + 1, extraLetters, groupWords,
+                        result);
+            } else if (c < required) {
+                if (extraLetters > 0 && 'a' <= c && c <= 'z') {
+                    collectSupersets(child, sortedLetters, matched, extraLetters - 1, groupWords,
+                            result);
+                }
+            } else {
+                // Paths are sorted, so the required letter can no longer appear below here.
+                break;
+            }
+        }
+    }
+
+    /**
+     * Adds to result the words of every group that uses some of sortedLetters, each letter at most
+     * as many times as it appears, and has at least minLength letters.
+     * @param groupWords The words of each group, indexed as passed to add.
+     */
+    void collectSubsets(char[] sortedLetters, int minLength,
+                        List<ArrayList<String>> groupWords, ArrayList<String> result) {
+        collectSubsets(ROOT, 0, sortedLetters, 0, minLength, groupWords, result);
+    }
+
+    private void collectSubsets(int node, int depth, char[] sortedLetters, int next, int minLength,
+                                List<ArrayList<String>> groupWords, ArrayList<String> result) {
+        if (depth >= minLength && groups[node] != NONE) {
+            ArrayList<String> words = groupWords.get(groups[node]);
+            for (int i = 0; i < words.size(); i++) {
+                result.add(words.get(i));
+            }
+        }
+        // Both the children and the letters are sorted, so one pass over the unused letters
+        // finds every child that can still be spelled.
+        int letter = next;
+        for (int child = firstChild[node]; child != NONE && letter < sortedLetters.length;
+             child = nextSibling[child]) {
+            char c = labels[child];
+            while (letter < sortedLetters.length && sortedLetters[letter] < c) {
+                letter++;
+            }
+            if (letter < sortedLetters.length && sortedLetters[letter] == c) {
+                collectSubsets(child, depth + 1, sortedLetters, letter + 1, minLength, groupWords,
+                        result);
+            }
+        }
+    }
+
+    int getNodeCount() {
+        return nodeCount;
+    }
+}
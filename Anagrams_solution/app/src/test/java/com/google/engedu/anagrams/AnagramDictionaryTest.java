@@ -76,6 +76,170 @@ public class AnagramDictionaryTest {
         assertTrue(dict.getAnagrams("stops").contains("spots"));
     }
 
+    @Test
+    public void testGetSignature() {
+        assertEquals(AnagramGroups.getSignature("spots"), AnagramGroups.getSignature("stops"));
+        assertNotEquals(AnagramGroups.getSignature("cat"), AnagramGroups.getSignature("dog"));
+        assertNotEquals(AnagramGroups.getSignature("pot"), AnagramGroups.getSignature("pots"));
+        // Repeated letters count.
+        assertNotEquals(AnagramGroups.getSignature("aab"), AnagramGroups.getSignature("abb"));
+    }
+
+    @Test
+    public void testGetAnagramsMissing() {
+        AnagramDictionary dict = new AnagramDictionary(words);
+        assertNull(dict.getAnagrams("xyz"));
+        assertNull(dict.getAnagrams(""));
+        // Same letters but a different count of them.
+        assertNull(dict.getAnagrams("caat"));
+    }
+
+    @Test
+    public void testGetAnagramsWithOneMoreLetter() {
+        AnagramDictionary dict = new AnagramDictionary(words);
+        List<String> result = dict.getAnagramsWithOneMoreLetter("pot");
+        assertEquals(2, result.size());
+        assertTrue(result.contains("pots"));
+        assertTrue(result.contains("stop"));
+
+        result = dict.getAnagramsWithOneMoreLetter("stop");
+        assertEquals(2, result.size());
+        assertTrue(result.contains("spots"));
+        assertTrue(result.contains("stops"));
+
+        assertEquals(0, dict.getAnagramsWithOneMoreLetter("dog").size());
+    }
+
+    @Test
+    public void testGetAnagramsWithKMoreLetters() {
+        AnagramDictionary dict = new AnagramDictionary(words);
+        List<String> result = dict.getAnagramsWithKMoreLetters("pot", 1);
+        assertEquals(2, result.size());
+        assertTrue(result.contains("pots"));
+        assertTrue(result.contains("stop"));
+
+        result = dict.getAnagramsWithKMoreLetters("pot", 2);
+        assertEquals(2, result.size());
+        assertTrue(result.contains("spots"));
+        assertTrue(result.contains("stops"));
+
+        // No extra letters is the same as the anagrams themselves.
+        result = dict.getAnagramsWithKMoreLetters("tac", 0);
+        assertEquals(2, result.size());
+        assertTrue(result.contains("act"));
+
+        assertEquals(0, dict.getAnagramsWithKMoreLetters("pot", 3).size());
+        assertEquals(0, dict.getAnagramsWithKMoreLetters("dogs", 1).size());
+    }
+
+    @Test
+    public void testGetAnagramsWithKMoreLettersRepeatedLetters() {
+        AnagramDictionary dict = new AnagramDictionary(
+                new String[] {"a", "aa", "aab", "baa", "aaab", "bb"});
+        List<String> result = dict.getAnagramsWithKMoreLetters("a", 2);
+        assertEquals(2, result.size());
+        assertTrue(result.contains("aab"));
+        assertTrue(result.contains("baa"));
+        assertEquals(1, dict.getAnagramsWithKMoreLetters("ab", 2).size());
+        assertEquals(2, dict.getAnagramsWithKMoreLetters("", 2).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetAnagramsWithNegativeK() {
+        new AnagramDictionary(words).getAnagramsWithKMoreLetters("pot", -1);
+    }
+
+    @Test
+    public void testFindWordsFormableFrom() {
+        AnagramDictionary dict = new AnagramDictionary(words);
+        List<String> result = dict.findWordsFormableFrom("tospx", 3);
+        assertEquals(3, result.size());
+        assertTrue(result.contains("pot"));
+        assertTrue(result.contains("pots"));
+        assertTrue(result.contains("stop"));
+
+        // "spots" and "stops" need two s's.
+        result = dict.findWordsFormableFrom("stops", 5);
+        assertEquals(2, result.size());
+        assertTrue(result.contains("spots"));
+        assertTrue(result.contains("stops"));
+
+        assertEquals(3, dict.findWordsFormableFrom("godact", 1).size());
+        assertEquals(0, dict.findWordsFormableFrom("ca", 1).size());
+        assertEquals(0, dict.findWordsFormableFrom("", 1).size());
+    }
+
+    @Test
+    public void testPickGoodStarterWord() {
+        // "abc" and "cab" have five anagrams with one more letter, and "abcd" has none.
+        String[] starterWords = {"abc", "cab", "abcd", "abce", "bcaf", "abcg", "habc", "xyz"};
+        AnagramDictionary dict = new AnagramDictionary(starterWords);
+        for (int i = 0; i < 10; i++) {
+            String starter = dict.pickGoodStarterWord();
+            assertTrue(starter.equals("abc") || starter.equals("cab"));
+        }
+        // There are no starters of length 5, so the nearest length is used.
+        assertEquals(3, dict.pickGoodStarterWord(5).length());
+
+        // Without any good starters there is nothing to pick.
+        assertNull(new AnagramDictionary(words).pickGoodStarterWord());
+    }
+
+    @Test
+    public void testPickGoodStarterWordLengthProgression() {
+        String[] starterWords = {"abc", "abcd", "abce", "abcf", "abcg", "abch",
+                "abcde", "abcdf", "abcdg", "abcdh", "abcdi"};
+        AnagramDictionary dict = new AnagramDictionary(starterWords);
+        assertEquals("abc", dict.pickGoodStarterWord());
+        assertEquals("abcd", dict.pickGoodStarterWord());
+        // Nothing longer qualifies, so the longest starter keeps being used.
+        assertEquals("abcd", dict.pickGoodStarterWord());
+
+        dict.resetWordLength();
+        assertEquals("abc", dict.pickGoodStarterWord());
+    }
+
+    @Test
+    public void testBuilderMatchesConstructor() {
+        String[] many = new String[3000];
+        for (int i = 0; i < many.length; i++) {
+            // Shuffle the digits around so that plenty of words are anagrams of each other.
+            many[i] = AnagramDictionary.sortLetters(Integer.toString(i * 7919 % 2000, 5))
+                    + (i % 3 == 0 ? "" : Integer.toString(i % 97, 36));
+        }
+        AnagramDictionary expected = new AnagramDictionary(many);
+        for (int threads : new int[] {1, 2, 3, 4, 8}) {
+            AnagramDictionary dict = new AnagramDictionary.Builder()
+                    .setThreadCount(threads)
+                    .build(many);
+            assertEquals(expected.getAnagramGroups(), dict.getAnagramGroups());
+            assertEquals(expected.findWordsFormableFrom("01234abc", 1),
+                    dict.findWordsFormableFrom("01234abc", 1));
+            for (int i = 0; i < many.length; i += 7) {
+                assertTrue(dict.isGoodWord(many[i], "#"));
+                assertFalse(dict.isGoodWord(many[i] + "#", "$"));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNeedsAThread() {
+        new AnagramDictionary.Builder().setThreadCount(0);
+    }
+
+    @Test
+    public void testManyWords() {
+        // Enough groups to make the signature table grow a few times.
+        String[] many = new String[5000];
+        for (int i = 0; i < many.length; i++) {
+            many[i] = Integer.toString(i, 26);
+        }
+        AnagramDictionary dict = new AnagramDictionary(many);
+        for (String word : many) {
+            assertTrue(dict.getAnagrams(word).contains(word));
+        }
+    }
+
     /**
      * Example:
      * Input                              | Output
@@ -92,5 +256,9 @@ public class AnagramDictionaryTest {
         assertTrue(dict.isGoodWord("stops", "pot"));
         assertFalse(dict.isGoodWord("pots", "pot"));
         assertFalse(dict.isGoodWord("abcdefg", "cat"));
+        // Prefixes and extensions of words, which share nodes with them, are not words.
+        assertFalse(dict.isGoodWord("spot", "cat"));
+        assertFalse(dict.isGoodWord("stopss", "cat"));
+        assertFalse(dict.isGoodWord("", "cat"));
     }
 }
@@ -0,0 +1,146 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.benchmarks;
+
+import com.google.engedu.anagrams.AnagramDictionary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnagramDictionaryBenchmark {
+    /**
+     * The number of extra letters for getAnagramsWithKMoreLetters. It lives in its own state so
+     * that it only multiplies the runs of that benchmark.
+     */
+    @State(Scope.Benchmark)
+    public static class ExtraLetters {
+        @Param({"1", "2", "3"})
+        public int k;
+    }
+
+    /**
+     * The word list and thread count for AnagramDictionary.Builder. The words are read up front,
+     * so only the grouping and merging is measured. The synthetic list has a million random words
+     * of 3 to 8 letters, most of them without anagrams.
+     */
+    @State(Scope.Benchmark)
+    public static class Build {
+        private static final int SYNTHETIC_WORD_COUNT = 1000000;
+
+        @Param({"words.txt", "synthetic"})
+        public String words;
+
+        @Param({"1", "2", "4", "8"})
+        public int threadCount;
+
+        private String[] wordArray;
+
+        @Setup
+        public void setUp() throws IOException {
+            if (words.equals("words.txt")) {
+                List<String> list = new WordList().getWords();
+                wordArray = list.toArray(new String[list.size()]);
+            } else {
+                wordArray = newSyntheticWords(SYNTHETIC_WORD_COUNT);
+            }
+        }
+
+        private static String[] newSyntheticWords(int count) {
+            Random random = new Random(42);
+            String[] words = new String[count];
+            char[] letters = new char[8];
+            for (int i = 0; i < count; i++) {
+                int length = 3 + random.nextInt(6);
+                for (int j = 0; j < length; j++) {
+                    letters[j] = (char) ('a' + random.nextInt(26));
+                }
+                words[i] = new String(letters, 0, length);
+            }
+            return words;
+        }
+    }
+
+    private WordList wordList;
+    private AnagramDictionary dictionary;
+    private String[] queries;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        wordList = new WordList();
+        dictionary = new AnagramDictionary(wordList.newInputStream());
+        queries = wordList.sample(1024, 3);
+    }
+
+    private String nextQuery() {
+        next = (next + 1) & (queries.length - 1);
+        return queries[next];
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public AnagramDictionary load() throws IOException {
+        return new AnagramDictionary(wordList.newInputStream());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public AnagramDictionary build(Build build) {
+        return new AnagramDictionary.Builder()
+                .setThreadCount(build.threadCount)
+                .build(build.wordArray);
+    }
+
+    @Benchmark
+    public List<String> getAnagrams() {
+        return dictionary.getAnagrams(nextQuery());
+    }
+
+    @Benchmark
+    public List<String> getAnagramsWithOneMoreLetter() {
+        return dictionary.getAnagramsWithOneMoreLetter(nextQuery());
+    }
+
+    @Benchmark
+    public List<String> getAnagramsWithKMoreLetters(ExtraLetters extraLetters) {
+        return dictionary.getAnagramsWithKMoreLetters(nextQuery(), extraLetters.k);
+    }
+
+    @Benchmark
+    public String pickGoodStarterWord() {
+        return dictionary.pickGoodStarterWord();
+    }
+}
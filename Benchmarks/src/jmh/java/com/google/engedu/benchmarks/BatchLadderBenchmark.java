@@ -0,0 +1,104 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.benchmarks;
+
+import com.google.engedu.wordladder.BatchLadderSolver;
+import com.google.engedu.wordladder.CsrWordGraph;
+import com.google.engedu.wordladder.PathDictionary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solves the same 10,000 pairs of 4-letter words one findPath call at a time and as a batch,
+ * with a cold cache. The random pairs have about 4 end words per start word, the clustered ones
+ * 100. Divide the pair count by the time per operation for the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchLadderBenchmark {
+    private static final int PAIR_COUNT = 10000;
+    private static final int CLUSTER_SIZE = 100;
+
+    @Param({"random", "clustered"})
+    public String workload;
+
+    private PathDictionary dictionary;
+    private CsrWordGraph graph;
+    private List<BatchLadderSolver.Pair> pairs;
+
+    @Setup
+    public void setUp() throws IOException {
+        WordList wordList = new WordList();
+        dictionary = new PathDictionary(wordList.getWords());
+        graph = new CsrWordGraph(wordList.getWords());
+        List<String> words = new ArrayList<>();
+        for (String word : wordList.getWords()) {
+            if (word.length() == 4) {
+                words.add(word);
+            }
+        }
+        Random random = new Random(42);
+        pairs = new ArrayList<>();
+        String start = null;
+        for (int i = 0; i < PAIR_COUNT; i++) {
+            if (workload.equals("random") || i % CLUSTER_SIZE == 0) {
+                start = words.get(random.nextInt(words.size()));
+            }
+            pairs.add(new BatchLadderSolver.Pair(start, words.get(random.nextInt(words.size()))));
+        }
+    }
+
+    @Benchmark
+    public void findPathLoop(Blackhole blackhole) {
+        for (BatchLadderSolver.Pair pair : pairs) {
+            blackhole.consume(dictionary.findPath(pair.start, pair.end));
+        }
+    }
+
+    @Benchmark
+    public List<List<String>> findPathsSingleThread() {
+        return new BatchLadderSolver.Builder().build(graph).findPaths(pairs);
+    }
+
+    @Benchmark
+    public List<List<String>> findPaths() {
+        return new BatchLadderSolver.Builder()
+                .setThreadCount(Runtime.getRuntime().availableProcessors())
+                .build(graph)
+                .findPaths(pairs);
+    }
+}
@@ -0,0 +1,106 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.benchmarks;
+
+import com.google.engedu.ghost.CompactDictionary;
+import com.google.engedu.ghost.DawgDictionary;
+import com.google.engedu.ghost.FastDictionary;
+import com.google.engedu.ghost.GhostDictionary;
+import com.google.engedu.ghost.ShardedDictionary;
+import com.google.engedu.ghost.SimpleDictionary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GhostDictionaryBenchmark {
+    @Param({"SimpleDictionary", "FastDictionary", "CompactDictionary", "DawgDictionary",
+            "ShardedDictionary"})
+    public String implementation;
+
+    private WordList wordList;
+    private GhostDictionary dictionary;
+    private String[] words;
+    private String[] prefixes;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        wordList = new WordList();
+        dictionary = load();
+        words = wordList.sample(1024, GhostDictionary.MIN_WORD_LENGTH);
+        prefixes = new String[words.length];
+        for (int i = 0; i < words.length; i++) {
+            prefixes[i] = words[i].substring(0, 1 + i % 3);
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (words.length - 1);
+        return next;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public GhostDictionary load() throws IOException {
+        switch (implementation) {
+            case "SimpleDictionary":
+                return new SimpleDictionary(wordList.newInputStream());
+            case "FastDictionary":
+                return new FastDictionary(wordList.newInputStream());
+            case "CompactDictionary":
+                return new CompactDictionary(wordList.newInputStream());
+            case "DawgDictionary":
+                return new DawgDictionary(wordList.newInputStream());
+            case "ShardedDictionary":
+                return new ShardedDictionary(wordList.newInputStream());
+            default:
+                throw new IllegalArgumentException(implementation);
+        }
+    }
+
+    @Benchmark
+    public boolean isWord() {
+        return dictionary.isWord(words[nextIndex()]);
+    }
+
+    @Benchmark
+    public String getAnyWordStartingWith() {
+        return dictionary.getAnyWordStartingWith(prefixes[nextIndex()]);
+    }
+
+    @Benchmark
+    public String getGoodWordStartingWith() {
+        return dictionary.getGoodWordStartingWith(prefixes[nextIndex()]);
+    }
+}
@@ -0,0 +1,78 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.benchmarks;
+
+import com.google.engedu.palindromes.PalindromeGroup;
+import com.google.engedu.palindromes.PalindromeHelper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PalindromeBenchmark {
+    @Param({"16", "64", "256", "4096", "100000"})
+    public int length;
+
+    private char[] text;
+
+    @Setup
+    public void setUp() {
+        // A small alphabet so that the text is full of palindromes to choose between.
+        Random random = new Random(42);
+        text = new char[length];
+        for (int i = 0; i < length; i++) {
+            text[i] = (char) ('a' + random.nextInt(3));
+        }
+    }
+
+    @Benchmark
+    public PalindromeGroup breakIntoPalindromes() {
+        // PalindromeHelper remembers what it has seen, so start afresh every time.
+        return new PalindromeHelper().breakIntoPalindromes(text, 0, text.length);
+    }
+
+    @Benchmark
+    public int[] findMaximalPalindromes() {
+        return PalindromeHelper.findMaximalPalindromes(text, 0, text.length);
+    }
+
+    @Benchmark
+    public String findLongestPalindrome() {
+        return PalindromeHelper.findLongestPalindrome(text, 0, text.length);
+    }
+
+    @Benchmark
+    public int countDistinctPalindromes() {
+        return PalindromeHelper.countDistinctPalindromes(text, 0, text.length);
+    }
+}
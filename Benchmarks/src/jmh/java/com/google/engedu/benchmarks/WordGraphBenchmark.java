@@ -0,0 +1,129 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.benchmarks;
+
+import com.google.engedu.wordladder.BidirectionalSearch;
+import com.google.engedu.wordladder.CsrWordGraph;
+import com.google.engedu.wordladder.ImplicitWordGraph;
+import com.google.engedu.wordladder.SimpleWordGraph;
+import com.google.engedu.wordladder.WildcardWordGraph;
+import com.google.engedu.wordladder.WordGraph;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the WordGraph implementations on the words of one length, which is all a ladder
+ * search ever visits. SimpleWordGraph takes minutes to build over the whole word list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordGraphBenchmark {
+    private static final String[][] PAIRS = {
+            {"love:hate", "cold:warm", "head:tail"},
+            {"sleep:dream", "tears:smile", "flour:bread"},
+    };
+
+    @Param({"SimpleWordGraph", "WildcardWordGraph", "ImplicitWordGraph", "CsrWordGraph"})
+    public String implementation;
+
+    @Param({"4", "5"})
+    public int length;
+
+    private List<String> words;
+    private WordGraph graph;
+    private String[] sample;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        WordList wordList = new WordList();
+        words = new ArrayList<>();
+        for (String word : wordList.getWords()) {
+            if (word.length() == length && !words.contains(word)) {
+                words.add(word);
+            }
+        }
+        graph = build();
+        sample = wordList.sample(1024, length);
+        for (int i = 0; i < sample.length; i++) {
+            if (sample[i].length() != length) {
+                sample[i] = words.get(i % words.size());
+            }
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public WordGraph build() {
+        switch (implementation) {
+            case "SimpleWordGraph":
+                SimpleWordGraph graph = new SimpleWordGraph();
+                for (String word : words) {
+                    graph.addWord(word);
+                }
+                return graph;
+            case "WildcardWordGraph":
+                return new WildcardWordGraph(words);
+            case "ImplicitWordGraph":
+                return new ImplicitWordGraph(words);
+            case "CsrWordGraph":
+                return new CsrWordGraph(words);
+            default:
+                throw new IllegalArgumentException(implementation);
+        }
+    }
+
+    @Benchmark
+    public int getNeighbors() {
+        next = (next + 1) & (sample.length - 1);
+        return graph.getNeighbors(sample[next]).size();
+    }
+
+    @Benchmark
+    public void findPaths(Blackhole blackhole) {
+        BidirectionalSearch search = new BidirectionalSearch(graph);
+        for (String pair : PAIRS[length - 4]) {
+            String[] ends = pair.split(":");
+            if (graph instanceof CsrWordGraph) {
+                // CsrWordGraph runs its own search on word IDs.
+                blackhole.consume(((CsrWordGraph) graph).findPath(ends[0], ends[1],
+                        Integer.MAX_VALUE));
+            } else {
+                blackhole.consume(search.findPath(ends[0], ends[1], Integer.MAX_VALUE));
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.benchmarks;
+
+import com.google.engedu.wordladder.LadderIndex;
+import com.google.engedu.wordladder.PathDictionary;
+import com.google.engedu.wordladder.ShortestLadders;
+import com.google.engedu.wordladder.SimpleWordGraph;
+import com.google.engedu.wordladder.WildcardWordGraph;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordLadderBenchmark {
+    @Param({"cat:dog", "love:hate", "cold:warm", "ape:man", "head:tail", "sleep:dream",
+            "tears:smile", "flour:bread"})
+    public String pair;
+
+    private WordList wordList;
+    private PathDictionary dictionary;
+    private String start;
+    private String end;
+
+    @Setup
+    public void setUp() throws IOException {
+        wordList = new WordList();
+        String[] words = pair.split(":");
+        start = words[0];
+        end = words[1];
+        dictionary = new PathDictionary(wordList.newInputStream());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PathDictionary loadPathDictionary() throws IOException {
+        return new PathDictionary(wordList.newInputStream());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SimpleWordGraph buildSimpleWordGraph() {
+        SimpleWordGraph graph = new SimpleWordGraph();
+        for (String word : wordList.getWords()) {
+            if (word.length() == start.length()) {
+                graph.addWord(word);
+            }
+        }
+        return graph;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public WildcardWordGraph buildWildcardWordGraph() {
+        return new WildcardWordGraph(wordList.getWords());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public LadderIndex buildLadderIndex() {
+        return dictionary.buildLadderIndex(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Benchmark
+    public List<String> findPath() {
+        return dictionary.findPath(start, end);
+    }
+
+    @Benchmark
+    public ShortestLadders findShortestLadders() {
+        return dictionary.findShortestLadders(start, end);
+    }
+
+    @Benchmark
+    public List<String> findPathAStar() {
+        return dictionary.findPath(start, end, 6, PathDictionary.SearchMode.A_STAR);
+    }
+}
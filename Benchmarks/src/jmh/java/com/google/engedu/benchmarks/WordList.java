@@ -0,0 +1,75 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Loads the real words.txt for the benchmarks. The file is read into memory once, so that load
+ * benchmarks measure parsing and building rather than disk access. Set the system property
+ * words.txt to use another word list.
+ */
+final class WordList {
+    private static final String DEFAULT_PATH = "../Ghost_solution/app/src/main/assets/words.txt";
+
+    private final byte[] bytes;
+    private final List<String> words = new ArrayList<>();
+
+    WordList() throws IOException {
+        bytes = Files.readAllBytes(Paths.get(System.getProperty("words.txt", DEFAULT_PATH)));
+        BufferedReader in = new BufferedReader(new InputStreamReader(newInputStream(), "UTF-8"));
+        String line;
+        while ((line = in.readLine()) != null) {
+            String word = line.trim();
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+    }
+
+    InputStream newInputStream() {
+        return new ByteArrayInputStream(bytes);
+    }
+
+    List<String> getWords() {
+        return words;
+    }
+
+    /**
+     * Picks count words at random, always the same ones, of at least minLength letters.
+     */
+    String[] sample(int count, int minLength) {
+        Random random = new Random(42);
+        String[] sample = new String[count];
+        int i = 0;
+        while (i < count) {
+            String word = words.get(random.nextInt(words.size()));
+            if (word.length() >= minLength) {
+                sample[i++] = word;
+            }
+        }
+        return sample;
+    }
+}
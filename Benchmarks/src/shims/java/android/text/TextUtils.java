@@ -0,0 +1,46 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.text;
+
+import java.util.Iterator;
+
+/**
+ * JVM stand-in for the parts of android.text.TextUtils that the benchmarked code uses.
+ */
+public final class TextUtils {
+    private TextUtils() {
+    }
+
+    public static boolean isEmpty(CharSequence str) {
+        return str == null || str.length() == 0;
+    }
+
+    public static boolean equals(CharSequence a, CharSequence b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    public static String join(CharSequence delimiter, Iterable<?> tokens) {
+        StringBuilder result = new StringBuilder();
+        Iterator<?> iterator = tokens.iterator();
+        while (iterator.hasNext()) {
+            result.append(iterator.next());
+            if (iterator.hasNext()) {
+                result.append(delimiter);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,260 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.ghost;
+
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * A trie stored in a few flat primitive arrays instead of a graph of TrieNode objects.
+ *
+ * Nodes are numbered in breadth-first order, so the children of node n are exactly the nodes
+ * firstChild[n] up to (but not including) firstChild[n + 1], sorted by their label. Each node
+ * stores only the character on the edge leading into it and whether it ends a word.
+ *
+ * The arrays are held as buffers so that a trie read from a DictionaryImage can be used straight
+ * from the memory-mapped file without copying it onto the heap.
+ */
+public class CompactTrie {
+    static final int ROOT = 0;
+    static final int NOT_FOUND = -1;
+
+    private final CharBuffer labels;
+    private final IntBuffer firstChild;
+    // One bit per node, set if the node ends a word.
+    private final LongBuffer terminal;
+    private final int nodeCount;
+    private Random mRandom;
+
+    /**
+     * Builds the trie from a list of words. The words do not need to be sorted or unique.
+     */
+    public CompactTrie(String[] words) {
+        this(words, new Random());
+    }
+
+    CompactTrie(String[] words, Random random) {
+        mRandom = random;
+        String[] sorted = words.clone();
+        Arrays.sort(sorted);
+
+        // Each pending node remembers the range of sorted words below it and its depth. Because
+        // we visit nodes in the same order we create them, children always end up contiguous.
+        int capacity = Math.max(16, sorted.length * 2);
+        char[] nodeLabels = new char[capacity];
+        int[] nodeFirstChild = new int[capacity + 1];
+        int[] rangeStart = new int[capacity];
+        int[] rangeEnd = new int[capacity];
+        int[] depth = new int[capacity];
+        BitSet isWord = new BitSet(capacity);
+
+        int count = 1;
+        rangeStart[ROOT] = 0;
+        rangeEnd[ROOT] = sorted.length;
+        for (int node = 0; node < count; node++) {
+            int start = rangeStart[node];
+            int end = rangeEnd[node];
+            int d = depth[node];
+            nodeFirstChild[node] = count;
+            // Words that end here sort before any longer word with the same prefix.
+            while (start < end && sorted[start].length() == d) {
+                isWord.set(node);
+                start++;
+            }
+            while (start < end) {
+                char c = sorted[start].charAt(d);
+                int groupEnd = start + 1;
+                while (groupEnd < end && sorted[groupEnd].charAt(d) == c) {
+                    groupEnd++;
+                }
+                if (count == capacity) {
+                    capacity *= 2;
+                    nodeLabels = Arrays.copyOf(nodeLabels, capacity);
+                    nodeFirstChild = Arrays.copyOf(nodeFirstChild, capacity + 1);
+                    rangeStart = Arrays.copyOf(rangeStart, capacity);
+                    rangeEnd = Arrays.copyOf(rangeEnd, capacity);
+                    depth = Arrays.copyOf(depth, capacity);
+                }
+                nodeLabels[count] = c;
+                rangeStart[count] = start;
+                rangeEnd[count] = groupEnd;
+                depth[count] = d + 1;
+                count++;
+                start = groupEnd;
+            }
+        }
+        nodeFirstChild[count] = count;
+
+        nodeCount = count;
+        labels = CharBuffer.wrap(Arrays.copyOf(nodeLabels, count));
+        firstChild = IntBuffer.wrap(Arrays.copyOf(nodeFirstChild, count + 1));
+        terminal = LongBuffer.wrap(Arrays.copyOf(isWord.toLongArray(), getTerminalLength(count)));
+    }
+
+    /**
+     * Wraps existing trie arrays, as written out by DictionaryImage.
+     */
+    CompactTrie(CharBuffer labels, IntBuffer firstChild, LongBuffer terminal, Random random) {
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.terminal = terminal;
+        nodeCount = labels.limit();
+        mRandom = random;
+    }
+
+    static int getTerminalLength(int nodeCount) {
+        return (nodeCount + 63) / 64;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * The size of the trie arrays in bytes, whether they are on the heap or memory-mapped.
+     */
+    public long getSizeInBytes() {
+        return 2L * labels.limit() + 4L * firstChild.limit() + 8L * terminal.limit();
+    }
+
+    /**
+     * Walks down the trie following the characters of s.
+     * @return The node reached, or NOT_FOUND if s is not a prefix of any word.
+     */
+    int findNode(String s) {
+        int node = ROOT;
+        for (int i = 0; i < s.length() && node != NOT_FOUND; i++) {
+            node = findChild(node, s.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Finds the child of node labelled c with a binary search over the sorted children.
+     */
+    int findChild(int node, char c) {
+        int low = firstChild.get(node);
+        int high = firstChild.get(node + 1) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = labels.get(mid);
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    int getChildCount(int node) {
+        return firstChild.get(node + 1) - firstChild.get(node);
+    }
+
+    int getFirstChild(int node) {
+        return firstChild.get(node);
+    }
+
+    char getLabel(int node) {
+        return labels.get(node);
+    }
+
+    boolean isTerminal(int node) {
+        return (terminal.get(node >>> 6) & (1L << node)) != 0;
+    }
+
+    // The index-th 64 bit word of the terminal bits, for DictionaryImage.
+    long getTerminalBits(int index) {
+        return terminal.get(index);
+    }
+
+    public boolean isWord(String s) {
+        int node = findNode(s);
+        return node != NOT_FOUND && isTerminal(node);
+    }
+
+    /**
+     * Returns a random word that is strictly longer than s and starts with it, or null if there
+     * is none. A null s is treated as the empty prefix, and returns "" for an empty trie.
+     */
+    public String getAnyWordStartingWith(String s) {
+        if (s == null) {
+            return getChildCount(ROOT) == 0 ? "" : completeRandomly(ROOT, new StringBuilder());
+        }
+        int node = findNode(s);
+        if (node == NOT_FOUND || getChildCount(node) == 0) {
+            return null;
+        }
+        return completeRandomly(node, new StringBuilder(s));
+    }
+
+    // Follows random children from node until reaching a leaf, which is always a word.
+    private String completeRandomly(int node, StringBuilder result) {
+        while (getChildCount(node) > 0) {
+            node = firstChild.get(node) + mRandom.nextInt(getChildCount(node));
+            result.append(labels.get(node));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Like TrieNode.getGoodWordStartingWith: at every step after the prefix, randomly picks a
+     * child that is not a complete word, and only falls back to one that is a word if it must.
+     */
+    public String getGoodWordStartingWith(String s) {
+        int node = findNode(s);
+        if (node == NOT_FOUND) {
+            return null;
+        }
+        if (getChildCount(node) == 0) {
+            return isTerminal(node) ? s : null;
+        }
+        StringBuilder result = new StringBuilder(s);
+        while (getChildCount(node) > 0) {
+            node = pickRandomGoodChild(node);
+            result.append(labels.get(node));
+        }
+        return result.toString();
+    }
+
+    // Pick a random child which is not itself a word, if possible, from all the children.
+    private int pickRandomGoodChild(int node) {
+        int start = firstChild.get(node);
+        int end = firstChild.get(node + 1);
+        int goodCount = 0;
+        for (int child = start; child < end; child++) {
+            if (!isTerminal(child)) {
+                goodCount++;
+            }
+        }
+        if (goodCount == 0) {
+            return start + mRandom.nextInt(end - start);
+        }
+        int index = mRandom.nextInt(goodCount);
+        for (int child = start; child < end; child++) {
+            if (!isTerminal(child) && index-- == 0) {
+                return child;
+            }
+        }
+        return NOT_FOUND;
+    }
+}
@@ -0,0 +1,473 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.ghost;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * A directed acyclic word graph: the minimal automaton that accepts exactly the given words.
+ * Where a trie repeats every common ending ("-ing", "-ed", "-s") under each word that has it, the
+ * DAWG merges all nodes that have the same set of endings, so it has far fewer nodes.
+ *
+ * It is built in one pass over the sorted words by incremental minimization (Daciuk et al. 2000):
+ * once a word is added, the nodes of the previous word below the common prefix can never change
+ * again, so each is replaced by an equal node already seen, or registered as a new one. Nodes are
+ * numbered in the order they are registered, which puts every node after all the nodes it leads
+ * to, with the root last.
+ *
+ * Once built, the graph is held in flat arrays. The edges of node n are firstEdge[n] up to (but
+ * not including) firstEdge[n + 1], sorted by label. Each node also knows how many words can be
+ * completed from it, so random completions can be picked uniformly by rank.
+ */
+public class Dawg {
+    static final int NOT_FOUND = -1;
+    static final int MAGIC = 0x44415747; // "DAWG"
+    static final int VERSION = 1;
+
+    private final int[] firstEdge;
+    private final char[] edgeLabels;
+    private final int[] edgeTargets;
+    // One bit per node, set if the node ends a word.
+    private final long[] terminal;
+    // The number of words that can be completed from each node, including "" if it ends a word.
+    private final int[] wordCounts;
+    private final int root;
+    private Random mRandom;
+
+    /**
+     * Builds the DAWG of a list of words. The words do not need to be sorted or unique.
+     */
+    public Dawg(String[] words) {
+        this(words, new Random());
+    }
+
+    Dawg(String[] words, Random random) {
+        mRandom = random;
+        String[] sorted = words.clone();
+        Arrays.sort(sorted);
+
+        Builder builder = new Builder();
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || !sorted[i].equals(sorted[i - 1])) {
+                builder.add(sorted[i]);
+            }
+        }
+        ArrayList<State> states = builder.finish();
+
+        int nodeCount = states.size();
+        int edgeCount = 0;
+        for (State state : states) {
+            edgeCount += state.edgeCount;
+        }
+        firstEdge = new int[nodeCount + 1];
+        edgeLabels = new char[edgeCount];
+        edgeTargets = new int[edgeCount];
+        terminal = new long[(nodeCount + 63) / 64];
+        int edge = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            State state = states.get(node);
+            firstEdge[node] = edge;
+            for (int i = 0; i < state.edgeCount; i++) {
+                edgeLabels[edge] = state.labels[i];
+                edgeTargets[edge] = state.targets[i].id;
+                edge++;
+            }
+            if (state.isFinal) {
+                terminal[node >>> 6] |= 1L << node;
+            }
+        }
+        firstEdge[nodeCount] = edge;
+        root = nodeCount - 1;
+        wordCounts = countWords();
+    }
+
+    private Dawg(int[] firstEdge, char[] edgeLabels, int[] edgeTargets, long[] terminal,
+                 Random random) {
+        this.firstEdge = firstEdge;
+        this.edgeLabels = edgeLabels;
+        this.edgeTargets = edgeTargets;
+        this.terminal = terminal;
+        root = firstEdge.length - 2;
+        mRandom = random;
+        wordCounts = countWords();
+    }
+
+    // Every node comes after the nodes it leads to, so one pass in order counts them all.
+    private int[] countWords() {
+        int[] counts = new int[getNodeCount()];
+        for (int node = 0; node < counts.length; node++) {
+            int count = isTerminal(node) ? 1 : 0;
+            for (int edge = firstEdge[node]; edge < firstEdge[node + 1]; edge++) {
+                count += counts[edgeTargets[edge]];
+            }
+            counts[node] = count;
+        }
+        return counts;
+    }
+
+    public int getNodeCount() {
+        return firstEdge.length - 1;
+    }
+
+    public int getEdgeCount() {
+        return edgeLabels.length;
+    }
+
+    public int getWordCount() {
+        return wordCounts[root];
+    }
+
+    /**
+     * The size of the graph's arrays in bytes.
+     */
+    public long getSizeInBytes() {
+        return 4L * firstEdge.length + 2L * edgeLabels.length + 4L * edgeTargets.length
+                + 8L * terminal.length + 4L * wordCounts.length;
+    }
+
+    private boolean isTerminal(int node) {
+        return (terminal[node >>> 6] & (1L << node)) != 0;
+    }
+
+    private int getEdgeCount(int node) {
+        return firstEdge[node + 1] - firstEdge[node];
+    }
+
+    /**
+     * Walks down the graph following the characters of s.
+     * @return The node reached, or NOT_FOUND if s is not a prefix of any word.
+     */
+    private int findNode(CharSequence s) {
+        int node = root;
+        for (int i = 0; i < s.length() && node != NOT_FOUND; i++) {
+            node = findTarget(node, s.charAt(i));
+        }
+        return node;
+    }
+
+    // Binary searches the sorted edges of node for one labelled c.
+    private int findTarget(int node, char c) {
+        int low = firstEdge[node];
+        int high = firstEdge[node + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = edgeLabels[mid];
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    public boolean isWord(CharSequence s) {
+        int node = findNode(s);
+        return node != NOT_FOUND && isTerminal(node);
+    }
+
+    /**
+     * Returns a word that is strictly longer than s and starts with it, picked uniformly at
+     * random from all such words, or null if there is none. A null s is treated as the empty
+     * prefix, and returns "" if there are no words.
+     */
+    public String getAnyWordStartingWith(CharSequence s) {
+        if (s == null) {
+            return getEdgeCount(root) == 0 ? "" : getAnyWordStartingWith("");
+        }
+        int node = findNode(s);
+        if (node == NOT_FOUND || getEdgeCount(node) == 0) {
+            return null;
+        }
+        StringBuilder result = new StringBuilder(s);
+        // Skip s itself, which would be rank 0 if it is a word.
+        int first = isTerminal(node) ? 1 : 0;
+        int rank = first + mRandom.nextInt(wordCounts[node] - first);
+        while (true) {
+            if (isTerminal(node)) {
+                if (rank == 0) {
+                    return result.toString();
+                }
+                rank--;
+            }
+            int edge = firstEdge[node];
+            while (rank >= wordCounts[edgeTargets[edge]]) {
+                rank -= wordCounts[edgeTargets[edge]];
+                edge++;
+            }
+            result.append(edgeLabels[edge]);
+            node = edgeTargets[edge];
+        }
+    }
+
+    /**
+     * Like TrieNode.getGoodWordStartingWith: at every step after the prefix, randomly picks an
+     * edge that does not complete a word, and only falls back to one that does if it must.
+     */
+    public String getGoodWordStartingWith(CharSequence s) {
+        int node = findNode(s);
+        if (node == NOT_FOUND) {
+            return null;
+        }
+        if (getEdgeCount(node) == 0) {
+            return isTerminal(node) ? s.toString() : null;
+        }
+        StringBuilder result = new StringBuilder(s);
+        while (getEdgeCount(node) > 0) {
+            int edge = pickRandomGoodEdge(node);
+            result.append(edgeLabels[edge]);
+            node = edgeTargets[edge];
+        }
+        return result.toString();
+    }
+
+    // Pick a random edge which does not lead to a word, if possible, from all the edges.
+    private int pickRandomGoodEdge(int node) {
+        int start = firstEdge[node];
+        int end = firstEdge[node + 1];
+        int goodCount = 0;
+        for (int edge = start; edge < end; edge++) {
+            if (!isTerminal(edgeTargets[edge])) {
+                goodCount++;
+            }
+        }
+        if (goodCount == 0) {
+            return start + mRandom.nextInt(end - start);
+        }
+        int index = mRandom.nextInt(goodCount);
+        for (int edge = start; edge < end; edge++) {
+            if (!isTerminal(edgeTargets[edge]) && index-- == 0) {
+                return edge;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Writes the graph in a compact binary form, which read turns back into an equal graph.
+     * Everything is big-endian:
+     * <pre>
+     *   int magic, int version, int nodeCount, int edgeCount
+     *   long[(nodeCount + 63) / 64]  terminal bits
+     *   int[nodeCount + 1]           first edge of each node
+     *   char[edgeCount]              edge labels
+     *   int[edgeCount]               edge targets
+     * </pre>
+     * The word counts are not written, since read can recount them in one pass.
+     */
+    public void write(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(getNodeCount());
+        out.writeInt(getEdgeCount());
+        for (long bits : terminal) {
+            out.writeLong(bits);
+        }
+        for (int edge : firstEdge) {
+            out.writeInt(edge);
+        }
+        for (char label : edgeLabels) {
+            out.writeChar(label);
+        }
+        for (int target : edgeTargets) {
+            out.writeInt(target);
+        }
+        out.flush();
+    }
+
+    public static Dawg read(InputStream inputStream) throws IOException {
+        return read(inputStream, new Random());
+    }
+
+    static Dawg read(InputStream inputStream, Random random) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a DAWG");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported DAWG version " + version);
+        }
+        int nodeCount = in.readInt();
+        int edgeCount = in.readInt();
+        if (nodeCount < 1 || edgeCount < 0) {
+            throw new IOException("Corrupt DAWG");
+        }
+        long[] terminal = new long[(nodeCount + 63) / 64];
+        for (int i = 0; i < terminal.length; i++) {
+            terminal[i] = in.readLong();
+        }
+        int[] firstEdge = new int[nodeCount + 1];
+        for (int i = 0; i < firstEdge.length; i++) {
+            firstEdge[i] = in.readInt();
+        }
+        char[] edgeLabels = new char[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            edgeLabels[i] = in.readChar();
+        }
+        int[] edgeTargets = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            edgeTargets[i] = in.readInt();
+        }
+        // Check the structure, so that a corrupt file fails here rather than on some lookup.
+        if (firstEdge[0] != 0 || firstEdge[nodeCount] != edgeCount) {
+            throw new IOException("Corrupt DAWG");
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            if (firstEdge[node] > firstEdge[node + 1]) {
+                throw new IOException("Corrupt DAWG");
+            }
+            for (int edge = firstEdge[node]; edge < firstEdge[node + 1]; edge++) {
+                if (edgeTargets[edge] < 0 || edgeTargets[edge] >= node) {
+                    throw new IOException("Corrupt DAWG");
+                }
+            }
+        }
+        return new Dawg(firstEdge, edgeLabels, edgeTargets, terminal, random);
+    }
+
+    // A node of the graph while it is being built.
+    private static class State {
+        char[] labels = new char[2];
+        State[] targets = new State[2];
+        int edgeCount;
+        boolean isFinal;
+        // The number given to the state when it is registered, or NOT_FOUND until then.
+        int id = NOT_FOUND;
+
+        State getLastTarget() {
+            return targets[edgeCount - 1];
+        }
+
+        void addEdge(char label, State target) {
+            if (edgeCount == labels.length) {
+                labels = Arrays.copyOf(labels, edgeCount * 2);
+                targets = Arrays.copyOf(targets, edgeCount * 2);
+            }
+            labels[edgeCount] = label;
+            targets[edgeCount] = target;
+            edgeCount++;
+        }
+
+        // Two states are equal if they end words alike and have the same edges to the very same
+        // registered states, which by then stand for equal sets of endings.
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof State)) {
+                return false;
+            }
+            State other = (State) o;
+            if (isFinal != other.isFinal || edgeCount != other.edgeCount) {
+                return false;
+            }
+            for (int i = 0; i < edgeCount; i++) {
+                if (labels[i] != other.labels[i] || targets[i] != other.targets[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = isFinal ? 1 : 0;
+            for (int i = 0; i < edgeCount; i++) {
+                hash = 31 * (31 * hash + labels[i]) + targets[i].id;
+            }
+            return hash;
+        }
+    }
+
+    // Builds the minimal automaton from words added in sorted order.
+    private static class Builder {
+        private final State root = new State();
+        private final HashMap<State, State> register = new HashMap<>();
+        private final ArrayList<State> registered = new ArrayList<>();
+        private String previous = "";
+
+        void add(String word) {
+            int common = 0;
+            int max = Math.min(word.length(), previous.length());
+            while (common < max && word.charAt(common) == previous.charAt(common)) {
+                common++;
+            }
+            State state = root;
+            for (int i = 0; i < common; i++) {
+                state = state.getLastTarget();
+            }
+            replaceOrRegister(state);
+            for (int i = common; i < word.length(); i++) {
+                State next = new State();
+                state.addEdge(word.charAt(i), next);
+                state = next;
+            }
+            state.isFinal = true;
+            previous = word;
+        }
+
+        /**
+         * Minimizes the unregistered states along the last edges below state, deepest first, so
+         * that every state is compared only after all the states it leads to are final.
+         */
+        private void replaceOrRegister(State state) {
+            ArrayList<State> path = new ArrayList<>();
+            path.add(state);
+            while (state.edgeCount > 0 && state.getLastTarget().id == NOT_FOUND) {
+                state = state.getLastTarget();
+                path.add(state);
+            }
+            for (int i = path.size() - 1; i > 0; i--) {
+                State child = path.get(i);
+                State equal = register.get(child);
+                State parent = path.get(i - 1);
+                if (equal != null) {
+                    parent.targets[parent.edgeCount - 1] = equal;
+                } else {
+                    register(child);
+                }
+            }
+        }
+
+        private void register(State state) {
+            state.id = registered.size();
+            registered.add(state);
+            register.put(state, state);
+        }
+
+        /**
+         * Minimizes what is left and registers the root last.
+         * @return The registered states, in order.
+         */
+        ArrayList<State> finish() {
+            replaceOrRegister(root);
+            register(root);
+            return registered;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.ghost;
+
+import android.support.annotation.VisibleForTesting;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A GhostDictionary with the same behavior as FastDictionary, but backed by a Dawg, which shares
+ * the common endings of words that a trie repeats. On the full words.txt the DAWG has about 6
+ * times fewer nodes than the trie.
+ */
+public class DawgDictionary implements GhostDictionary {
+
+    private Dawg dawg;
+
+    public DawgDictionary(InputStream wordListStream) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(wordListStream));
+        List<String> words = new ArrayList<>();
+        String line = null;
+        while((line = in.readLine()) != null) {
+            String word = line.trim();
+            if (word.length() >= MIN_WORD_LENGTH)
+                words.add(word);
+        }
+        dawg = new Dawg(words.toArray(new String[words.size()]));
+    }
+
+    /**
+     * Uses a Dawg that has already been built, e.g. one read back with Dawg.read.
+     */
+    public DawgDictionary(Dawg dawg) {
+        this.dawg = dawg;
+    }
+
+    @VisibleForTesting
+    public DawgDictionary(List<String> words) {
+        dawg = new Dawg(words.toArray(new String[words.size()]));
+    }
+
+    public Dawg getDawg() {
+        return dawg;
+    }
+
+    @Override
+    public boolean isWord(String word) {
+        return dawg.isWord(word);
+    }
+
+    @Override
+    public String getAnyWordStartingWith(String prefix) {
+        return dawg.getAnyWordStartingWith(prefix);
+    }
+
+    @Override
+    public String getGoodWordStartingWith(String prefix) {
+        return dawg.getGoodWordStartingWith(prefix);
+    }
+}
@@ -0,0 +1,215 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.ghost;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A prebuilt, read-only dictionary that can be memory-mapped at startup instead of parsing
+ * words.txt. The image is compiled from words.txt at build time (see app/build.gradle), and holds
+ * a sorted string table of the words plus the arrays of a CompactTrie over the same words.
+ *
+ * Only Ghost reads the image so far. It has no anagram-signature buckets, and the other apps
+ * still parse their own words.txt: each app is its own Gradle project, so they would first need
+ * to share this class the way buildSrc shares it with the Ghost build.
+ *
+ * Everything is big-endian, and the arrays are laid out widest first so they stay aligned:
+ * <pre>
+ *   int magic, int version, int wordCount, int charCount, int nodeCount, 3 reserved ints
+ *   long[(nodeCount + 63) / 64]  trie terminal bits
+ *   int[nodeCount + 1]           trie first child of each node
+ *   int[wordCount + 1]           offset of each word in the word chars
+ *   char[nodeCount]              trie labels
+ *   char[charCount]              word chars, in sorted order
+ * </pre>
+ * Bump VERSION whenever this layout changes.
+ */
+public class DictionaryImage {
+    static final int MAGIC = 0x47485354; // "GHST"
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+
+    private final WordTable words;
+    private final CompactTrie trie;
+
+    DictionaryImage(ByteBuffer image) throws IOException {
+        image = image.slice();
+        if (image.limit() < HEADER_SIZE || image.getInt(0) != MAGIC) {
+            throw new IOException("Not a dictionary image");
+        }
+        if (image.getInt(4) != VERSION) {
+            throw new IOException("Unsupported dictionary image version " + image.getInt(4));
+        }
+        int wordCount = image.getInt(8);
+        int charCount = image.getInt(12);
+        int nodeCount = image.getInt(16);
+
+        int terminalLength = CompactTrie.getTerminalLength(nodeCount);
+        long expectedSize = HEADER_SIZE + 8L * terminalLength + 4L * (nodeCount + 1)
+                + 4L * (wordCount + 1) + 2L * nodeCount + 2L * charCount;
+        if (image.limit() < expectedSize) {
+            throw new IOException("Truncated dictionary image");
+        }
+
+        int position = HEADER_SIZE;
+        LongBuffer terminal = section(image, position, 8 * terminalLength).asLongBuffer();
+        position += 8 * terminalLength;
+        IntBuffer firstChild = section(image, position, 4 * (nodeCount + 1)).asIntBuffer();
+        position += 4 * (nodeCount + 1);
+        IntBuffer wordOffsets = section(image, position, 4 * (wordCount + 1)).asIntBuffer();
+        position += 4 * (wordCount + 1);
+        CharBuffer labels = section(image, position, 2 * nodeCount).asCharBuffer();
+        position += 2 * nodeCount;
+        CharBuffer wordChars = section(image, position, 2 * charCount).asCharBuffer();
+
+        words = new WordTable(wordChars, wordOffsets);
+        trie = new CompactTrie(labels, firstChild, terminal, new Random());
+    }
+
+    private static ByteBuffer section(ByteBuffer image, int position, int length) {
+        ByteBuffer section = image.duplicate();
+        section.position(position);
+        section.limit(position + length);
+        return section.slice();
+    }
+
+    /**
+     * Maps an image from part of a file, e.g. an uncompressed asset opened with
+     * AssetManager.openFd. Nothing is copied: lookups read straight from the mapping.
+     */
+    public static DictionaryImage map(FileChannel channel, long position, long size)
+            throws IOException {
+        return new DictionaryImage(channel.map(FileChannel.MapMode.READ_ONLY, position, size));
+    }
+
+    public CompactTrie getTrie() {
+        return trie;
+    }
+
+    public WordTable getWordTable() {
+        return words;
+    }
+
+    public int getWordCount() {
+        return words.size();
+    }
+
+    /**
+     * Gets the index-th word of the sorted string table.
+     */
+    public String getWord(int index) {
+        return words.getWord(index);
+    }
+
+    /**
+     * Writes an image of the given words, which do not need to be sorted or unique.
+     */
+    public static void write(String[] words, OutputStream outputStream) throws IOException {
+        String[] sorted = sortUnique(words);
+        CompactTrie trie = new CompactTrie(sorted);
+        int nodeCount = trie.getNodeCount();
+        int charCount = 0;
+        for (String word : sorted) {
+            charCount += word.length();
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(sorted.length);
+        out.writeInt(charCount);
+        out.writeInt(nodeCount);
+        for (int i = 5; i < HEADER_SIZE / 4; i++) {
+            out.writeInt(0);
+        }
+        for (int i = 0; i < CompactTrie.getTerminalLength(nodeCount); i++) {
+            out.writeLong(trie.getTerminalBits(i));
+        }
+        for (int node = 0; node <= nodeCount; node++) {
+            out.writeInt(trie.getFirstChild(node));
+        }
+        int offset = 0;
+        out.writeInt(offset);
+        for (String word : sorted) {
+            offset += word.length();
+            out.writeInt(offset);
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            out.writeChar(trie.getLabel(node));
+        }
+        for (String word : sorted) {
+            out.writeChars(word);
+        }
+        out.flush();
+    }
+
+    /**
+     * Compiles a word list, one word per line, into an image file. Words shorter than
+     * minWordLength are left out. This is run by the build rather than by the app.
+     */
+    public static void compile(File wordList, File image, int minWordLength) throws IOException {
+        List<String> words = new ArrayList<>();
+        BufferedReader in = new BufferedReader(
+                new InputStreamReader(new FileInputStream(wordList), "UTF-8"));
+        try {
+            String line = null;
+            while ((line = in.readLine()) != null) {
+                String word = line.trim();
+                if (word.length() >= minWordLength) {
+                    words.add(word);
+                }
+            }
+        } finally {
+            in.close();
+        }
+        image.getAbsoluteFile().getParentFile().mkdirs();
+        OutputStream out = new FileOutputStream(image);
+        try {
+            write(words.toArray(new String[words.size()]), out);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static String[] sortUnique(String[] words) {
+        String[] sorted = words.clone();
+        Arrays.sort(sorted);
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (count == 0 || !sorted[i].equals(sorted[count - 1])) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, count);
+    }
+}
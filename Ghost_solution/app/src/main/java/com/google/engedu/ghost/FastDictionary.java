@@ -62,4 +62,12 @@ public class FastDictionary implements GhostDictionary {
         // TODO
         return root.getGoodWordStartingWith(prefix);
     }
+
+    /**
+     * Picks count different words that are strictly longer than prefix and start with it,
+     * uniformly at random, e.g. to offer as hints.
+     */
+    public List<String> getRandomWordsStartingWith(String prefix, int count) {
+        return root.getRandomWordsStartingWith(prefix, count);
+    }
 }
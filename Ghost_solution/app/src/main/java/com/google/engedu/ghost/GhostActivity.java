@@ -15,10 +15,15 @@
 
 package com.google.engedu.ghost;
 
+import android.content.res.AssetFileDescriptor;
 import android.content.res.AssetManager;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.support.v7.app.AppCompatActivity;
 import android.text.TextUtils;
+import android.util.Log;
 import android.view.KeyEvent;
 import android.view.Menu;
 import android.view.MenuItem;
@@ -26,9 +31,10 @@ import android.view.View;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Random;
+import java.util.concurrent.Executor;
 
 
 public class GhostActivity extends AppCompatActivity {
@@ -36,34 +42,98 @@ public class GhostActivity extends AppCompatActivity {
 
     private static final String COMPUTER_TURN = "Computer's turn";
     private static final String USER_TURN = "Your turn";
+    private static final String LOADING = "Loading dictionary...";
+    private static final String LOAD_FAILED = "Could not load dictionary";
     private static final String KEY_USER_TURN = "keyUserTurn";
     private static final String KEY_CURRENT_WORD = "keyCurrentWord";
     private static final String KEY_SAVED_STATUS = "keySavedStatus";
+    private static final String KEY_HARD_MODE = "keyHardMode";
+    private static final String KEY_COMPUTER_TURN_PENDING = "keyComputerTurnPending";
 
+    private DictionaryLoader<GhostDictionary> dictionaryLoader;
+    // Null until the dictionary has loaded.
     private GhostDictionary dictionary;
+    // Set if the computer should take its turn as soon as the dictionary has loaded.
+    private boolean computerTurnPending = false;
+    // Set if the dictionary could not be loaded, so that nothing waits for it any more.
+    private boolean loadFailed = false;
     private boolean userTurn = false;
     private Random random = new Random();
     private String currentWord = "";
+    private boolean hardMode = false;
+
+    // Runs dictionary callbacks on the main thread.
+    private final Executor mainThread = new Executor() {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(Runnable command) {
+            handler.post(command);
+        }
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_ghost);
-        AssetManager assetManager = getAssets();
-        try {
-            InputStream inputStream = assetManager.open("words.txt");
-            //dictionary = new SimpleDictionary(inputStream);
-            dictionary = new FastDictionary(inputStream);
-        } catch (IOException e) {
-            Toast toast = Toast.makeText(this, "Could not load dictionary", Toast.LENGTH_LONG);
-            toast.show();
-        }
+        final AssetManager assetManager = getAssets();
+        // Load the dictionary in the background, so that the user can start typing right away.
+        // The computer waits for it before taking its turn.
+        dictionaryLoader = new DictionaryLoader<>(new DictionaryLoader.Source<GhostDictionary>() {
+            @Override
+            public GhostDictionary load() throws IOException {
+                long startTime = SystemClock.elapsedRealtime();
+                // words.img is compiled from words.txt by the build, and stored uncompressed so
+                // that it can be memory-mapped rather than parsed. The mapping stays valid after
+                // the file is closed.
+                AssetFileDescriptor imageFd = assetManager.openFd("words.img");
+                FileInputStream imageStream = null;
+                GhostDictionary loaded;
+                try {
+                    imageStream = imageFd.createInputStream();
+                    loaded = new CompactDictionary(DictionaryImage.map(imageStream.getChannel(),
+                            imageFd.getStartOffset(), imageFd.getLength()));
+                } finally {
+                    if (imageStream != null) {
+                        imageStream.close();
+                    }
+                    imageFd.close();
+                }
+                //GhostDictionary loaded = new SimpleDictionary(assetManager.open("words.txt"));
+                Log.d(TAG, "Loaded dictionary in "
+                        + (SystemClock.elapsedRealtime() - startTime) + "ms");
+                return loaded;
+            }
+        }).start();
+        dictionaryLoader.whenLoaded(new DictionaryLoader.Callback<GhostDictionary>() {
+            @Override
+            public void onLoaded(GhostDictionary loaded) {
+                dictionary = loaded;
+                setHardMode(hardMode);
+                if (computerTurnPending) {
+                    computerTurnPending = false;
+                    computerTurn();
+                }
+            }
+
+            @Override
+            public void onFailed(IOException e) {
+                Log.e(TAG, "Could not load dictionary", e);
+                loadFailed = true;
+                computerTurnPending = false;
+                ((TextView) findViewById(R.id.gameStatus)).setText(LOAD_FAILED);
+                Toast toast = Toast.makeText(GhostActivity.this, LOAD_FAILED, Toast.LENGTH_LONG);
+                toast.show();
+            }
+        }, mainThread);
         if (savedInstanceState == null) {
             onStart(null);
         } else {
             userTurn = savedInstanceState.getBoolean(KEY_USER_TURN);
+            computerTurnPending = savedInstanceState.getBoolean(KEY_COMPUTER_TURN_PENDING);
             currentWord = savedInstanceState.getString(KEY_CURRENT_WORD);
             String status = savedInstanceState.getString(KEY_SAVED_STATUS);
+            setHardMode(savedInstanceState.getBoolean(KEY_HARD_MODE));
             ((TextView) findViewById(R.id.ghostText)).setText(currentWord);
             ((TextView) findViewById(R.id.gameStatus)).setText(status);
         }
@@ -73,6 +143,8 @@ public class GhostActivity extends AppCompatActivity {
     protected void onSaveInstanceState(Bundle outState) {
         outState.putBoolean(KEY_USER_TURN, userTurn);
         outState.putString(KEY_CURRENT_WORD, currentWord);
+        outState.putBoolean(KEY_HARD_MODE, hardMode);
+        outState.putBoolean(KEY_COMPUTER_TURN_PENDING, computerTurnPending);
         outState.putString(KEY_SAVED_STATUS,
                 ((TextView) findViewById(R.id.gameStatus)).getText().toString());
         super.onSaveInstanceState(outState);
@@ -82,6 +154,7 @@ public class GhostActivity extends AppCompatActivity {
     public boolean onCreateOptionsMenu(Menu menu) {
         // Inflate the menu; this adds items to the action bar if it is present.
         getMenuInflater().inflate(R.menu.menu_ghost, menu);
+        menu.findItem(R.id.action_hard).setChecked(hardMode);
         return true;
     }
 
@@ -96,10 +169,32 @@ public class GhostActivity extends AppCompatActivity {
         if (id == R.id.action_settings) {
             return true;
         }
+        if (id == R.id.action_hard) {
+            setHardMode(!item.isChecked());
+            item.setChecked(hardMode);
+            return true;
+        }
 
         return super.onOptionsItemSelected(item);
     }
 
+    @Override
+    protected void onDestroy() {
+        dictionaryLoader.cancel();
+        super.onDestroy();
+    }
+
+    /**
+     * In hard mode the computer plays perfectly, if the dictionary supports it.
+     * @param hard
+     */
+    private void setHardMode(boolean hard) {
+        hardMode = hard;
+        if (dictionary instanceof CompactDictionary) {
+            ((CompactDictionary) dictionary).setPerfectPlay(hard);
+        }
+    }
+
     @Override
     public boolean onKeyDown(int keyCode, KeyEvent event) {
         return super.onKeyDown(keyCode, event);
@@ -108,6 +203,10 @@ public class GhostActivity extends AppCompatActivity {
     @Override
     public boolean onKeyUp(int keyCode, KeyEvent event) {
         int unicode = event.getUnicodeChar();
+        if (computerTurnPending) {
+            // The computer is still waiting for the dictionary to take its turn.
+            return super.onKeyUp(keyCode, event);
+        }
         if (('A' <= unicode && unicode <= 'Z') || 'a' <= unicode && unicode <= 'z') {
             String character = ((char) unicode + "").toLowerCase();
             currentWord += character;
@@ -125,6 +224,7 @@ public class GhostActivity extends AppCompatActivity {
      */
     public boolean onStart(View view) {
         userTurn = random.nextBoolean();
+        computerTurnPending = false;
         currentWord = "";
         TextView text = (TextView) findViewById(R.id.ghostText);
         text.setText(currentWord);
@@ -143,6 +243,10 @@ public class GhostActivity extends AppCompatActivity {
      * @param unused
      */
     public void challenge(View unused) {
+        if (dictionary == null) {
+            ((TextView) findViewById(R.id.gameStatus)).setText(loadFailed ? LOAD_FAILED : LOADING);
+            return;
+        }
         doChallenge(/* from user */ true);
     }
 
@@ -184,6 +288,12 @@ public class GhostActivity extends AppCompatActivity {
 
     private void computerTurn() {
         TextView status = (TextView) findViewById(R.id.gameStatus);
+        if (dictionary == null) {
+            // Take the turn once the dictionary has loaded, unless it could not be.
+            computerTurnPending = !loadFailed;
+            status.setText(loadFailed ? LOAD_FAILED : LOADING);
+            return;
+        }
 
         // Checks if the user's currentWord is a full word, or if it is an invalid prefix.
         boolean challengeSuccessful = doChallenge(/* from the computer */ false);
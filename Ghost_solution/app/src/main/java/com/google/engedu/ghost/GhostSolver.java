@@ -0,0 +1,156 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.ghost;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Solves Ghost on a CompactTrie: works out, for every prefix in the trie, whether the player who
+ * adds the next letter can force a win.
+ *
+ * A player loses by completing a word of at least minWordLength letters, or by making something
+ * that is not the prefix of any word, since they will be challenged. So the player to move after
+ * such a word has already won, and otherwise wins exactly when some child is a loss for the other
+ * player. Children are numbered after their parents in the trie, so a single pass over the nodes
+ * from last to first sees every child before its parent. The result takes one bit per node.
+ */
+public class GhostSolver {
+    private final CompactTrie trie;
+    private final int minWordLength;
+    // One bit per node, set if the player to move there can force a win.
+    private final long[] winning;
+    private Random mRandom;
+
+    public GhostSolver(CompactTrie trie, int minWordLength) {
+        this(trie, minWordLength, new Random());
+    }
+
+    GhostSolver(CompactTrie trie, int minWordLength, Random random) {
+        this.trie = trie;
+        this.minWordLength = minWordLength;
+        mRandom = random;
+        int nodeCount = trie.getNodeCount();
+        winning = new long[CompactTrie.getTerminalLength(nodeCount)];
+
+        // In breadth-first order the nodes of each depth are contiguous, and the children of the
+        // range [start, end) are [firstChild(start), firstChild(end)). So the depth of every node
+        // is known from where each level starts, without storing it per node.
+        int[] levelStart = new int[16];
+        int levels = 0;
+        int start = CompactTrie.ROOT;
+        int end = CompactTrie.ROOT + 1;
+        while (start < end) {
+            if (levels + 1 == levelStart.length) {
+                levelStart = Arrays.copyOf(levelStart, levelStart.length * 2);
+            }
+            levelStart[levels++] = start;
+            int nextStart = trie.getFirstChild(start);
+            end = trie.getFirstChild(end);
+            start = nextStart;
+        }
+        levelStart[levels] = nodeCount;
+
+        for (int depth = levels - 1; depth >= 0; depth--) {
+            for (int node = levelStart[depth + 1] - 1; node >= levelStart[depth]; node--) {
+                if (endsGame(node, depth) || hasLosingChild(node)) {
+                    winning[node >>> 6] |= 1L << node;
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the game is over once node's prefix has been played. A word that is too short
+     * only ends the game if it cannot be extended.
+     */
+    private boolean endsGame(int node, int depth) {
+        return trie.isTerminal(node)
+                && (depth >= minWordLength || trie.getChildCount(node) == 0);
+    }
+
+    private boolean isWinning(int node) {
+        return (winning[node >>> 6] & (1L << node)) != 0;
+    }
+
+    private boolean hasLosingChild(int node) {
+        int end = trie.getFirstChild(node + 1);
+        for (int child = trie.getFirstChild(node); child < end; child++) {
+            if (!isWinning(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the player to add the next letter to prefix can force a win. Prefixes of no word
+     * are lost, since the player who made them gets challenged.
+     */
+    public boolean canWin(String prefix) {
+        int node = trie.findNode(prefix);
+        return node != CompactTrie.NOT_FOUND && isWinning(node);
+    }
+
+    /**
+     * Finds a winning move for the player to add the next letter to prefix, as a word that
+     * starts with prefix and that next letter, continued with best play by both sides.
+     * @return The word, or null if prefix is lost, already ends the game or is not in the trie.
+     */
+    public String getWinningWordStartingWith(String prefix) {
+        int node = trie.findNode(prefix);
+        int depth = prefix.length();
+        if (node == CompactTrie.NOT_FOUND || !isWinning(node) || endsGame(node, depth)) {
+            return null;
+        }
+        StringBuilder result = new StringBuilder(prefix);
+        while (!endsGame(node, depth)) {
+            node = pickBestChild(node);
+            result.append(trie.getLabel(node));
+            depth++;
+        }
+        return result.toString();
+    }
+
+    // Picks a random child that loses for the next player if there is one, or else any child.
+    private int pickBestChild(int node) {
+        int start = trie.getFirstChild(node);
+        int end = trie.getFirstChild(node + 1);
+        int losingCount = 0;
+        for (int child = start; child < end; child++) {
+            if (!isWinning(child)) {
+                losingCount++;
+            }
+        }
+        if (losingCount == 0) {
+            return start + mRandom.nextInt(end - start);
+        }
+        int index = mRandom.nextInt(losingCount);
+        for (int child = start; child < end; child++) {
+            if (!isWinning(child) && index-- == 0) {
+                return child;
+            }
+        }
+        return CompactTrie.NOT_FOUND;
+    }
+
+    /**
+     * The size of the win/loss table in bytes.
+     */
+    public long getSizeInBytes() {
+        return 8L * winning.length;
+    }
+}
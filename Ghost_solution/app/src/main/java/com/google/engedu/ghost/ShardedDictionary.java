@@ -0,0 +1,270 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.ghost;
+
+import android.support.annotation.VisibleForTesting;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A GhostDictionary that splits the words into shards by their first letter, and only builds the
+ * trie of a shard the first time it is asked about. Every prefix in a game of Ghost starts with
+ * the same letter, so a game builds a single shard instead of the whole dictionary. At most
+ * maxShards tries are kept; the least recently used one is dropped, and rebuilt if it is needed
+ * again.
+ *
+ * Until then the words stay as the raw bytes of words.txt, and each shard is just a list of the
+ * byte ranges of its lines. Lines are grouped into ranges as they appear, so in a sorted word
+ * list every shard is one range. Words that don't start with an ASCII character all share one
+ * shard.
+ *
+ * This class is not thread-safe.
+ */
+public class ShardedDictionary implements GhostDictionary {
+    public static final int DEFAULT_MAX_SHARDS = 4;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int OTHER = 128;
+    private static final int SHARD_COUNT = OTHER + 1;
+
+    private final ByteBuffer wordList;
+    // The start and end of each of a shard's byte ranges, in pairs.
+    private final int[][] ranges = new int[SHARD_COUNT][];
+    private final int[] rangeCounts = new int[SHARD_COUNT];
+    private final int[] wordCounts = new int[SHARD_COUNT];
+    private int totalWordCount;
+    private final LinkedHashMap<Integer, TrieNode> shards;
+    private Random mRandom;
+
+    public ShardedDictionary(InputStream wordListStream) throws IOException {
+        this(ByteBuffer.wrap(readFully(wordListStream)), DEFAULT_MAX_SHARDS);
+    }
+
+    /**
+     * @param wordList The UTF-8 bytes of a word list with one word per line, e.g. words.txt
+     *                 memory-mapped from an uncompressed asset. It must not change afterwards.
+     * @param maxShards The number of shard tries to keep built at once.
+     */
+    public ShardedDictionary(ByteBuffer wordList, int maxShards) {
+        this(wordList, maxShards, new Random());
+    }
+
+    @VisibleForTesting
+    public ShardedDictionary(List<String> words, int maxShards) {
+        this(ByteBuffer.wrap(join(words)), maxShards, new Random());
+    }
+
+    @VisibleForTesting
+    ShardedDictionary(ByteBuffer wordList, final int maxShards, Random random) {
+        if (maxShards < 1) {
+            throw new IllegalArgumentException("maxShards must be at least 1: " + maxShards);
+        }
+        this.wordList = wordList.slice();
+        mRandom = random;
+        shards = new LinkedHashMap<Integer, TrieNode>(SHARD_COUNT, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, TrieNode> eldest) {
+                return size() > maxShards;
+            }
+        };
+        index();
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] join(List<String> words) {
+        StringBuilder joined = new StringBuilder();
+        for (String word : words) {
+            joined.append(word).append('\n');
+        }
+        return joined.toString().getBytes(UTF_8);
+    }
+
+    private static int getShard(int firstByte) {
+        return firstByte < OTHER ? firstByte : OTHER;
+    }
+
+    /**
+     * Finds the byte ranges of each shard and counts its words, in one pass over the bytes
+     * without decoding them.
+     */
+    private void index() {
+        int size = wordList.limit();
+        int previousShard = -1;
+        int lineStart = 0;
+        while (lineStart < size) {
+            int lineEnd = lineStart;
+            while (lineEnd < size && wordList.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            // Trim like String.trim does, and count chars rather than bytes.
+            int start = lineStart;
+            while (start < lineEnd && (wordList.get(start) & 0xff) <= ' ') {
+                start++;
+            }
+            int end = lineEnd;
+            while (end > start && (wordList.get(end - 1) & 0xff) <= ' ') {
+                end--;
+            }
+            if (start < end) {
+                int shard = getShard(wordList.get(start) & 0xff);
+                if (shard == previousShard) {
+                    ranges[shard][2 * rangeCounts[shard] - 1] = lineEnd;
+                } else {
+                    addRange(shard, lineStart, lineEnd);
+                    previousShard = shard;
+                }
+                int length = 0;
+                for (int i = start; i < end; i++) {
+                    // UTF-8 continuation bytes are 10xxxxxx.
+                    if ((wordList.get(i) & 0xc0) != 0x80) {
+                        length++;
+                    }
+                }
+                if (length >= MIN_WORD_LENGTH) {
+                    wordCounts[shard]++;
+                    totalWordCount++;
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    private void addRange(int shard, int start, int end) {
+        if (ranges[shard] == null) {
+            ranges[shard] = new int[2];
+        } else if (2 * rangeCounts[shard] == ranges[shard].length) {
+            ranges[shard] = Arrays.copyOf(ranges[shard], 2 * ranges[shard].length);
+        }
+        ranges[shard][2 * rangeCounts[shard]] = start;
+        ranges[shard][2 * rangeCounts[shard] + 1] = end;
+        rangeCounts[shard]++;
+    }
+
+    /**
+     * Returns the trie of a shard, building it if it isn't cached, or null if the shard has no
+     * words.
+     */
+    private TrieNode getTrie(int shard) {
+        if (wordCounts[shard] == 0) {
+            return null;
+        }
+        TrieNode trie = shards.get(shard);
+        if (trie == null) {
+            trie = buildTrie(shard);
+            shards.put(shard, trie);
+        }
+        return trie;
+    }
+
+    private TrieNode buildTrie(int shard) {
+        TrieNode trie = new TrieNode(mRandom);
+        for (int i = 0; i < rangeCounts[shard]; i++) {
+            int start = ranges[shard][2 * i];
+            byte[] bytes = new byte[ranges[shard][2 * i + 1] - start];
+            ByteBuffer range = wordList.duplicate();
+            range.position(start);
+            range.get(bytes);
+            String lines = new String(bytes, UTF_8);
+            int lineStart = 0;
+            while (lineStart < lines.length()) {
+                int lineEnd = lines.indexOf('\n', lineStart);
+                if (lineEnd == -1) {
+                    lineEnd = lines.length();
+                }
+                String word = lines.substring(lineStart, lineEnd).trim();
+                if (word.length() >= MIN_WORD_LENGTH) {
+                    trie.add(word);
+                }
+                lineStart = lineEnd + 1;
+            }
+        }
+        return trie;
+    }
+
+    private TrieNode getTrie(String prefix) {
+        return getTrie(getShard(prefix.charAt(0)));
+    }
+
+    /**
+     * Picks a shard with a probability proportional to its number of words, so that picking a
+     * random word from it is the same as picking one from the whole dictionary.
+     */
+    private TrieNode getRandomTrie() {
+        if (totalWordCount == 0) {
+            return null;
+        }
+        int rank = mRandom.nextInt(totalWordCount);
+        int shard = 0;
+        while (rank >= wordCounts[shard]) {
+            rank -= wordCounts[shard];
+            shard++;
+        }
+        return getTrie(shard);
+    }
+
+    @Override
+    public boolean isWord(String word) {
+        if (word.isEmpty()) {
+            return false;
+        }
+        TrieNode trie = getTrie(word);
+        return trie != null && trie.isWord(word);
+    }
+
+    @Override
+    public String getAnyWordStartingWith(String prefix) {
+        if (prefix.isEmpty()) {
+            TrieNode trie = getRandomTrie();
+            return trie == null ? null : trie.getAnyWordStartingWith(prefix);
+        }
+        TrieNode trie = getTrie(prefix);
+        return trie == null ? null : trie.getAnyWordStartingWith(prefix);
+    }
+
+    @Override
+    public String getGoodWordStartingWith(String prefix) {
+        if (prefix.isEmpty()) {
+            TrieNode trie = getRandomTrie();
+            return trie == null ? null : trie.getGoodWordStartingWith(prefix);
+        }
+        TrieNode trie = getTrie(prefix);
+        return trie == null ? null : trie.getGoodWordStartingWith(prefix);
+    }
+
+    /**
+     * The number of shard tries that are built right now.
+     */
+    public int getBuiltShardCount() {
+        return shards.size();
+    }
+}
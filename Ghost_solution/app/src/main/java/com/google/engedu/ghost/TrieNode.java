@@ -15,127 +15,234 @@
 
 package com.google.engedu.ghost;
 
+import android.support.annotation.VisibleForTesting;
+
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.TreeSet;
 
-
+/**
+ * A node of a trie of words. Each node keeps its children in parallel arrays sorted by character,
+ * along with a running total of the words in each child's subtree, and all the nodes of a trie
+ * share one Random. The word counts let random completions be picked uniformly from all the words
+ * below a node, by rank, in one walk down the trie.
+ *
+ * Every method walks down the trie with a loop over the indexes of the given CharSequence rather
+ * than recursing on substrings, and builds any word it returns in one StringBuilder kept by the
+ * node it was called on. So a lookup allocates nothing but the String it returns, and long words
+ * don't use up the stack. Because of the shared StringBuilder, a trie should only be used from
+ * one thread at a time.
+ */
 public class TrieNode {
-    private HashMap<String, TrieNode> children;
+    private static final char[] NO_CHARS = new char[0];
+    private static final TrieNode[] NO_NODES = new TrieNode[0];
+    private static final int[] NO_COUNTS = new int[0];
+
+    private char[] childChars = NO_CHARS;
+    private TrieNode[] children = NO_NODES;
+    // wordCounts[i] is the number of words in the subtrees of children[0] up to children[i].
+    private int[] wordCounts = NO_COUNTS;
     private boolean isWord;
     private Random mRandom;
+    private StringBuilder mBuilder;
 
     public TrieNode() {
-        children = new HashMap<>();
+        this(new Random());
+    }
+
+    @VisibleForTesting
+    TrieNode(Random random) {
         isWord = false;
-        mRandom = new Random();
+        mRandom = random;
     }
 
-    public void add(String s) {
-        if (s.length() == 0) {
-            isWord = true;
+    public void add(CharSequence s) {
+        TrieNode node = this;
+        for (int i = 0; i < s.length(); i++) {
+            node = node.getOrAddChild(s.charAt(i));
+        }
+        if (node.isWord) {
             return;
         }
-        String firstChar = s.substring(0, 1);
-        String remaining = s.substring(1);
-        if (children.containsKey(firstChar)) {
-            children.get(firstChar).add(remaining);
-        } else {
-            TrieNode child = new TrieNode();
-            children.put(firstChar, child);
-            child.add(remaining);
+        node.isWord = true;
+        // Count the new word in every node above it.
+        node = this;
+        for (int i = 0; i < s.length(); i++) {
+            int index = Arrays.binarySearch(node.childChars, s.charAt(i));
+            for (int j = index; j < node.wordCounts.length; j++) {
+                node.wordCounts[j]++;
+            }
+            node = node.children[index];
         }
     }
 
-    public boolean isWord(String s) {
-        // Are we at the base node?
-        if (s.length() == 0) {
-            return isWord;
+    private TrieNode getOrAddChild(char c) {
+        int index = Arrays.binarySearch(childChars, c);
+        if (index >= 0) {
+            return children[index];
         }
-        // Do we have children that start with this character?
-        String firstChar = s.substring(0, 1);
-        if (children.containsKey(firstChar)) {
-            // If so, do they think it is a word?
-            String remaining = s.substring(1);
-            return children.get(firstChar).isWord(remaining);
+        // Children rarely number more than 26, so growing by exactly one keeps the arrays small.
+        int insertAt = -index - 1;
+        char[] chars = new char[childChars.length + 1];
+        TrieNode[] nodes = new TrieNode[children.length + 1];
+        int[] counts = new int[wordCounts.length + 1];
+        System.arraycopy(childChars, 0, chars, 0, insertAt);
+        System.arraycopy(children, 0, nodes, 0, insertAt);
+        System.arraycopy(wordCounts, 0, counts, 0, insertAt);
+        System.arraycopy(childChars, insertAt, chars, insertAt + 1, childChars.length - insertAt);
+        System.arraycopy(children, insertAt, nodes, insertAt + 1, children.length - insertAt);
+        System.arraycopy(wordCounts, insertAt, counts, insertAt + 1, wordCounts.length - insertAt);
+        TrieNode child = new TrieNode(mRandom);
+        chars[insertAt] = c;
+        nodes[insertAt] = child;
+        // The new child has no words yet, so the running total doesn't change.
+        counts[insertAt] = insertAt == 0 ? 0 : wordCounts[insertAt - 1];
+        childChars = chars;
+        children = nodes;
+        wordCounts = counts;
+        return child;
+    }
+
+    /**
+     * Walks down from this node following the characters of s.
+     * @return The node reached, or null if no word starts with s.
+     */
+    private TrieNode find(CharSequence s) {
+        TrieNode node = this;
+        for (int i = 0; i < s.length() && node != null; i++) {
+            int index = Arrays.binarySearch(node.childChars, s.charAt(i));
+            node = index >= 0 ? node.children[index] : null;
         }
-        return false;
+        return node;
     }
 
-    // TODO need strictly longer than prefix
-    public String getAnyWordStartingWith(String s) {
-        // Base case: No prefix at all -- s is null.
-        if (s == null) {
-            if (children.size() > 0) {
-                // Pick any next character and return that word
-                String nextChar = pickRandomChildChar();
-                String nextSuffix = children.get(nextChar).getAnyWordStartingWith(null);
-                return nextChar + nextSuffix;
-            } else {
-                return "";
-            }
+    public boolean isWord(CharSequence s) {
+        TrieNode node = find(s);
+        return node != null && node.isWord;
+    }
+
+    // Clears and returns the StringBuilder used to build results.
+    private StringBuilder getBuilder() {
+        if (mBuilder == null) {
+            mBuilder = new StringBuilder();
         }
-        if (s.length() == 0) {
-            if (children.size() == 0 && isWord) {
-                // We are a leaf node and a word -- so we have no children!
-                return null;
-            } else {
-                if (children.size() > 0) {
-                    // Pick any next character and return that word
-                    String nextChar = pickRandomChildChar();
-                    String nextSuffix = children.get(nextChar).getAnyWordStartingWith(null);
-                    return nextChar + nextSuffix;
+        mBuilder.setLength(0);
+        return mBuilder;
+    }
+
+    // The number of words strictly below this node.
+    private int getWordCountBelow() {
+        return wordCounts.length == 0 ? 0 : wordCounts[wordCounts.length - 1];
+    }
+
+    /**
+     * Appends to result the rest of the rank-th word strictly below node, in sorted order.
+     */
+    private static void appendWordAt(TrieNode node, int rank, StringBuilder result) {
+        while (true) {
+            // Find the first child whose running total is more than rank.
+            int low = 0;
+            int high = node.wordCounts.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (node.wordCounts[mid] <= rank) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
                 }
-                // Otherwise we are a leaf node -- we have no children. Return null; we couldn't make
-                // a valid word.
-                return null;
+            }
+            if (low > 0) {
+                rank -= node.wordCounts[low - 1];
+            }
+            result.append(node.childChars[low]);
+            node = node.children[low];
+            // A word sorts before the longer words that start with it.
+            if (node.isWord) {
+                if (rank == 0) {
+                    return;
+                }
+                rank--;
             }
         }
-        String firstChar = s.substring(0, 1);
-        if (children.containsKey(firstChar)) {
-            String remaining = s.substring(1);
-            String nextSuffix = children.get(firstChar).getAnyWordStartingWith(remaining);
-            if (nextSuffix == null) {
+    }
+
+    /**
+     * Returns a word that is strictly longer than s and starts with it, picked uniformly at
+     * random from all such words, or null if there is none. A null s is treated as the empty
+     * prefix, and returns "" if there are no words.
+     */
+    public String getAnyWordStartingWith(CharSequence s) {
+        TrieNode node = this;
+        StringBuilder result = getBuilder();
+        if (s == null) {
+            if (children.length == 0) {
+                return "";
+            }
+        } else {
+            node = find(s);
+            if (node == null || node.children.length == 0) {
+                // Either no word starts with s, or s is a word that can't be extended.
                 return null;
             }
-            return firstChar + nextSuffix;
+            result.append(s);
         }
-        return null;
+        appendWordAt(node, mRandom.nextInt(node.getWordCountBelow()), result);
+        return result.toString();
     }
 
-    // Pick a random child character from all the children.
-    private String pickRandomChildChar() {
-        int index = mRandom.nextInt(children.size());
-        int reached = 0;
-        // Assume that the children's order doesn't change after creation so that this is truly
-        // random.
-        for (String s : children.keySet()) {
-            if (index == reached) {
-                return s;
-            }
-            reached++;
+    /**
+     * Picks count different words that are strictly longer than prefix and start with it,
+     * uniformly at random, e.g. to offer as hints. If there are no more than count such words,
+     * returns them all.
+     * @return The words in sorted order, or an empty list if there are none.
+     */
+    public List<String> getRandomWordsStartingWith(CharSequence prefix, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        List<String> words = new ArrayList<>();
+        TrieNode node = find(prefix);
+        if (node == null) {
+            return words;
+        }
+        // Floyd's algorithm picks distinct ranks with one call to Random for each.
+        int total = node.getWordCountBelow();
+        TreeSet<Integer> ranks = new TreeSet<>();
+        for (int i = total - Math.min(count, total); i < total; i++) {
+            int rank = mRandom.nextInt(i + 1);
+            ranks.add(ranks.contains(rank) ? i : rank);
         }
-        return null;
+        StringBuilder result = getBuilder();
+        for (int rank : ranks) {
+            result.setLength(0);
+            result.append(prefix);
+            appendWordAt(node, rank, result);
+            words.add(result.toString());
+        }
+        return words;
     }
 
-    // Pick a random child character which is not itself a word, if possible, from all the children.
-    private String pickRandomGoodChildChar() {
-        List<String> goodKeys = new ArrayList<>();
-        List<String> otherKeys = new ArrayList<>();
-        for (String s : children.keySet()) {
-            if (children.get(s).isWord) {
-                otherKeys.add(s);
-            } else {
-                goodKeys.add(s);
+    // Pick the index of a random child which is not itself a word, if possible, from all the
+    // children.
+    private int pickRandomGoodChild() {
+        int goodCount = 0;
+        for (TrieNode child : children) {
+            if (!child.isWord) {
+                goodCount++;
             }
         }
-        if (goodKeys.size() > 0) {
-            return goodKeys.get(mRandom.nextInt(goodKeys.size()));
-        } else {
-            return otherKeys.get(mRandom.nextInt(otherKeys.size()));
+        if (goodCount == 0) {
+            return mRandom.nextInt(children.length);
         }
+        int pick = mRandom.nextInt(goodCount);
+        for (int i = 0; i < children.length; i++) {
+            if (!children[i].isWord && pick-- == 0) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -144,24 +251,21 @@ public class TrieNode {
      * words should it randomly select one of those. This is not an optimum computer player but
      * should make the game quite a bit more challenging.
      */
-    public String getGoodWordStartingWith(String s) {
-        if (s.length() == 0) {
-            if (children.size() == 0) {
-                // If there are no children, it depends on if we are a word.
-                return isWord ? "" : null;
-            }
-            // Pick a child that is not a complete word, if possible.
-            String childChar = pickRandomGoodChildChar();
-            return childChar + children.get(childChar).getGoodWordStartingWith(s);
-        }
-        String firstChar = s.substring(0, 1);
-        if (children.containsKey(firstChar)) {
-            String result = children.get(firstChar).getGoodWordStartingWith(s.substring(1));
-            if (result == null) {
-                return null;
-            }
-            return firstChar + result;
+    public String getGoodWordStartingWith(CharSequence s) {
+        TrieNode node = find(s);
+        if (node == null) {
+            return null;
+        }
+        if (node.children.length == 0) {
+            // If there are no children, it depends on if we are a word.
+            return node.isWord ? s.toString() : null;
+        }
+        StringBuilder result = getBuilder().append(s);
+        while (node.children.length > 0) {
+            int index = node.pickRandomGoodChild();
+            result.append(node.childChars[index]);
+            node = node.children[index];
         }
-        return null;
+        return result.toString();
     }
 }
@@ -0,0 +1,161 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.ghost;
+
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.util.List;
+
+/**
+ * A sorted list of words packed into one block of chars, with the offset of each word in an int
+ * table, so that 63k words cost two arrays instead of 63k String objects.
+ *
+ * Lookups are iterative binary searches that compare against the packed chars in place, and only
+ * the word that is finally returned is turned into a String. Like CompactTrie, the table is held
+ * as buffers so that it can be read straight from a memory-mapped DictionaryImage.
+ */
+public class WordTable {
+    static final int NOT_FOUND = -1;
+
+    private final CharBuffer chars;
+    // offsets[i] is where word i starts in chars; offsets[size()] is the end of the last word.
+    private final IntBuffer offsets;
+
+    /**
+     * Packs the words in the order given, which must be sorted for the searches to work.
+     */
+    public WordTable(List<String> words) {
+        int charCount = 0;
+        for (int i = 0; i < words.size(); i++) {
+            charCount += words.get(i).length();
+        }
+        char[] chars = new char[charCount];
+        int[] offsets = new int[words.size() + 1];
+        int offset = 0;
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            word.getChars(0, word.length(), chars, offset);
+            offset += word.length();
+            offsets[i + 1] = offset;
+        }
+        this.chars = CharBuffer.wrap(chars);
+        this.offsets = IntBuffer.wrap(offsets);
+    }
+
+    WordTable(CharBuffer chars, IntBuffer offsets) {
+        this.chars = chars;
+        this.offsets = offsets;
+    }
+
+    public int size() {
+        return offsets.limit() - 1;
+    }
+
+    public String getWord(int index) {
+        return chars.subSequence(offsets.get(index), offsets.get(index + 1)).toString();
+    }
+
+    public int getLength(int index) {
+        return offsets.get(index + 1) - offsets.get(index);
+    }
+
+    /**
+     * Compares the first (up to) limit chars of word index with the same chars of s, in the
+     * order of String.compareTo.
+     */
+    private int compare(int index, String s, int limit) {
+        int start = offsets.get(index);
+        int length = Math.min(offsets.get(index + 1) - start, limit);
+        int common = Math.min(length, s.length());
+        for (int i = 0; i < common; i++) {
+            char c = chars.get(start + i);
+            char d = s.charAt(i);
+            if (c != d) {
+                return c - d;
+            }
+        }
+        return length - Math.min(s.length(), limit);
+    }
+
+    /**
+     * @return The index of word, or NOT_FOUND if it is not in the table.
+     */
+    public int indexOf(String word) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int comparison = compare(mid, word, Integer.MAX_VALUE);
+            if (comparison == 0) {
+                return mid;
+            } else if (comparison < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * @return The lowest index of a word starting with prefix, or NOT_FOUND if there is none.
+     */
+    public int findFirstIndexStartingWith(String prefix) {
+        int first = findBoundary(prefix, false);
+        if (first == size() || compare(first, prefix, prefix.length()) != 0) {
+            return NOT_FOUND;
+        }
+        return first;
+    }
+
+    /**
+     * @return The highest index of a word starting with prefix, or NOT_FOUND if there is none.
+     */
+    public int findLastIndexStartingWith(String prefix) {
+        int last = findBoundary(prefix, true) - 1;
+        if (last < 0 || compare(last, prefix, prefix.length()) != 0) {
+            return NOT_FOUND;
+        }
+        return last;
+    }
+
+    /**
+     * Finds where the words starting with prefix begin, or if after is set, where they end.
+     * Compared on their first prefix.length() chars, the words before the range sort lower than
+     * the prefix and the words after it sort higher, so each boundary is a plain lower bound.
+     */
+    private int findBoundary(String prefix, boolean after) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int comparison = compare(mid, prefix, prefix.length());
+            if (comparison < 0 || (after && comparison == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * An estimate of the memory used by the table, in bytes.
+     */
+    public long getSizeInBytes() {
+        return 2L * chars.limit() + 4L * offsets.limit();
+    }
+}
@@ -0,0 +1,119 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.ghost;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CompactDictionaryTest {
+    String[] wordsArray = {"apple", "cat", "caterwaul", "caterwauled", "caterwauling", "caterwauls",
+            "catfish", "catfishes", "cats", "dog", "dogs", "dogfish", "dogfishes", "life", "lives"};
+
+    @Test
+    public void testIsWord() {
+        ArrayList<String> words = new ArrayList<>(Arrays.asList(wordsArray));
+        CompactDictionary dict = new CompactDictionary(words);
+
+        assertTrue(dict.isWord("cat"));
+        assertTrue(dict.isWord("cats"));
+        assertTrue(dict.isWord("dogfishes"));
+        assertFalse(dict.isWord("c"));
+        assertFalse(dict.isWord("fish"));
+        assertFalse(dict.isWord(""));
+    }
+
+    @Test
+    public void testGetAnyWordStartingWith() {
+        ArrayList<String> words = new ArrayList<>(Arrays.asList(wordsArray));
+        CompactDictionary dict = new CompactDictionary(words);
+
+        // Edge cases
+        assertNull(dict.getAnyWordStartingWith("notaword"));
+        assertNull(dict.getAnyWordStartingWith("caq"));
+        assertNotNull(dict.getAnyWordStartingWith(""));
+
+        // Check some substrings
+        assertEquals("catfishes", dict.getAnyWordStartingWith("catfishe"));
+        assertEquals(null, dict.getAnyWordStartingWith("catfishes"));
+        assertTrue(dict.getAnyWordStartingWith("cat").startsWith("cat"));
+
+        // Check last word in the dict
+        assertEquals("lives", dict.getAnyWordStartingWith("liv"));
+
+        // Check first word
+        assertEquals("apple", dict.getAnyWordStartingWith("a"));
+        assertEquals("apple", dict.getAnyWordStartingWith("appl"));
+    }
+
+    @Test
+    public void testGetGoodWordStartingWith() {
+        ArrayList<String> words = new ArrayList<>(Arrays.asList(wordsArray));
+        CompactDictionary dict = new CompactDictionary(words);
+
+        // Shouldn't pick the word itself if another option is available
+        assertFalse("cat".equals(dict.getGoodWordStartingWith("cat")));
+        assertEquals("catfishes", dict.getGoodWordStartingWith("catfishes"));
+        assertEquals("catfishes", dict.getGoodWordStartingWith("catfish"));
+        assertNull(dict.getGoodWordStartingWith("caq"));
+
+        assertEquals("apple", dict.getGoodWordStartingWith("a"));
+
+        // Only use that word if it is the only option
+        assertEquals("apple", dict.getGoodWordStartingWith("apple"));
+    }
+
+    @Test
+    public void testPerfectPlay() {
+        CompactDictionary dict = new CompactDictionary(Arrays.asList("abcde", "bee", "beet"));
+        dict.setPerfectPlay(true);
+
+        assertTrue(dict.isPerfectPlay());
+        assertEquals("beet", dict.getGoodWordStartingWith(""));
+        assertEquals("abcde", dict.getGoodWordStartingWith("a"));
+        // There is no winning move after "ab", so it falls back to the heuristic.
+        assertEquals("abcde", dict.getGoodWordStartingWith("ab"));
+
+        dict.setPerfectPlay(false);
+        assertFalse(dict.isPerfectPlay());
+    }
+
+    @Test
+    public void testUnsortedAndDuplicateWords() {
+        CompactDictionary dict = new CompactDictionary(
+                Arrays.asList("lives", "cat", "apple", "cat", "cats", "apple"));
+
+        assertTrue(dict.isWord("apple"));
+        assertTrue(dict.isWord("cat"));
+        assertTrue(dict.isWord("lives"));
+        assertEquals("cats", dict.getAnyWordStartingWith("cat"));
+    }
+
+    @Test
+    public void testSize() {
+        CompactTrie trie = new CompactTrie(new String[] {"cat", "cats", "dog"});
+        // The root, c, ca, cat, cats, d, do and dog.
+        assertEquals(8, trie.getNodeCount());
+        assertTrue(trie.getSizeInBytes() > 0);
+    }
+}
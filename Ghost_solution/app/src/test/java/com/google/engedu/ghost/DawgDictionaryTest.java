@@ -0,0 +1,148 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.ghost;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DawgDictionaryTest {
+    String[] wordsArray = {"apple", "cat", "caterwaul", "caterwauled", "caterwauling", "caterwauls",
+            "catfish", "catfishes", "cats", "dog", "dogs", "dogfish", "dogfishes", "life", "lives"};
+
+    @Test
+    public void testIsWord() {
+        DawgDictionary dict = new DawgDictionary(new ArrayList<>(Arrays.asList(wordsArray)));
+
+        assertTrue(dict.isWord("cat"));
+        assertTrue(dict.isWord("cats"));
+        assertTrue(dict.isWord("dogfishes"));
+        assertFalse(dict.isWord("c"));
+        assertFalse(dict.isWord("fish"));
+        assertFalse(dict.isWord(""));
+        // "dog" and "cat" share their endings, but "catfishes" doesn't make "dogfish" a word.
+        assertFalse(dict.isWord("dogerwaul"));
+    }
+
+    @Test
+    public void testGetAnyWordStartingWith() {
+        DawgDictionary dict = new DawgDictionary(new ArrayList<>(Arrays.asList(wordsArray)));
+
+        assertNull(dict.getAnyWordStartingWith("notaword"));
+        assertNull(dict.getAnyWordStartingWith("caq"));
+        assertNotNull(dict.getAnyWordStartingWith(""));
+
+        assertEquals("catfishes", dict.getAnyWordStartingWith("catfishe"));
+        assertEquals(null, dict.getAnyWordStartingWith("catfishes"));
+        assertTrue(dict.getAnyWordStartingWith("cat").startsWith("cat"));
+        assertFalse("cat".equals(dict.getAnyWordStartingWith("cat")));
+        assertEquals("lives", dict.getAnyWordStartingWith("liv"));
+        assertEquals("apple", dict.getAnyWordStartingWith("appl"));
+    }
+
+    @Test
+    public void testUniformCompletions() {
+        Dawg dawg = new Dawg(new String[] {"ab", "abc", "abcd", "ax", "b"}, new Random(0));
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 4000; i++) {
+            String word = dawg.getAnyWordStartingWith("a");
+            Integer count = counts.get(word);
+            counts.put(word, count == null ? 1 : count + 1);
+        }
+
+        assertEquals(4, counts.size());
+        for (String word : new String[] {"ab", "abc", "abcd", "ax"}) {
+            assertTrue(word, Math.abs(counts.get(word) - 1000) < 150);
+        }
+    }
+
+    @Test
+    public void testGetGoodWordStartingWith() {
+        DawgDictionary dict = new DawgDictionary(new ArrayList<>(Arrays.asList(wordsArray)));
+
+        assertFalse("cat".equals(dict.getGoodWordStartingWith("cat")));
+        assertEquals("catfishes", dict.getGoodWordStartingWith("catfishes"));
+        assertEquals("catfishes", dict.getGoodWordStartingWith("catfish"));
+        assertNull(dict.getGoodWordStartingWith("caq"));
+        assertEquals("apple", dict.getGoodWordStartingWith("a"));
+        assertEquals("apple", dict.getGoodWordStartingWith("apple"));
+    }
+
+    @Test
+    public void testSharedEndings() {
+        // The root, then "ats", "ts", "s" and the end, shared by both words.
+        Dawg dawg = new Dawg(new String[] {"cats", "rats"});
+        assertEquals(5, dawg.getNodeCount());
+        assertEquals(2, dawg.getWordCount());
+
+        Dawg unsorted = new Dawg(new String[] {"rats", "cats", "rats", "cat"});
+        assertEquals(3, unsorted.getWordCount());
+        assertTrue(unsorted.isWord("cat"));
+        assertFalse(unsorted.isWord("rat"));
+    }
+
+    @Test
+    public void testEmpty() {
+        Dawg dawg = new Dawg(new String[0]);
+        assertEquals(1, dawg.getNodeCount());
+        assertFalse(dawg.isWord(""));
+        assertEquals("", dawg.getAnyWordStartingWith(null));
+        assertNull(dawg.getAnyWordStartingWith(""));
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        Dawg dawg = new Dawg(wordsArray);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dawg.write(out);
+        Dawg read = Dawg.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(dawg.getNodeCount(), read.getNodeCount());
+        assertEquals(dawg.getEdgeCount(), read.getEdgeCount());
+        assertEquals(dawg.getWordCount(), read.getWordCount());
+        for (String word : wordsArray) {
+            assertTrue(read.isWord(word));
+        }
+        assertFalse(read.isWord("dogerwaul"));
+        assertEquals("lives", new DawgDictionary(read).getAnyWordStartingWith("liv"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadBadMagic() throws IOException {
+        Dawg.read(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 0, 0, 0, 1}));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadTruncated() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new Dawg(wordsArray).write(out);
+        byte[] bytes = out.toByteArray();
+        Dawg.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+}
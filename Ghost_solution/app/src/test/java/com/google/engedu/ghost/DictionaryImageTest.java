@@ -0,0 +1,108 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.ghost;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DictionaryImageTest {
+    String[] wordsArray = {"apple", "cat", "caterwaul", "caterwauled", "caterwauling", "caterwauls",
+            "catfish", "catfishes", "cats", "dog", "dogs", "dogfish", "dogfishes", "life", "lives"};
+
+    private byte[] writeImage(String[] words) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DictionaryImage.write(words, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testStringTable() throws IOException {
+        DictionaryImage image = new DictionaryImage(ByteBuffer.wrap(
+                writeImage(new String[] {"dog", "cat", "apple", "cat"})));
+
+        assertEquals(3, image.getWordCount());
+        assertEquals("apple", image.getWord(0));
+        assertEquals("cat", image.getWord(1));
+        assertEquals("dog", image.getWord(2));
+    }
+
+    @Test
+    public void testTrieMatchesBuiltTrie() throws IOException {
+        DictionaryImage image = new DictionaryImage(ByteBuffer.wrap(writeImage(wordsArray)));
+        CompactTrie built = new CompactTrie(wordsArray);
+        CompactDictionary dict = new CompactDictionary(image);
+
+        assertEquals(built.getNodeCount(), image.getTrie().getNodeCount());
+        assertEquals(built.getSizeInBytes(), image.getTrie().getSizeInBytes());
+        for (String word : wordsArray) {
+            assertTrue(dict.isWord(word));
+        }
+        assertFalse(dict.isWord("c"));
+        assertFalse(dict.isWord("fish"));
+        assertNull(dict.getAnyWordStartingWith("caq"));
+        assertEquals("catfishes", dict.getAnyWordStartingWith("catfishe"));
+        assertEquals("apple", dict.getGoodWordStartingWith("a"));
+        assertEquals("catfishes", dict.getGoodWordStartingWith("catfish"));
+    }
+
+    @Test
+    public void testSimpleDictionaryFromImage() throws IOException {
+        DictionaryImage image = new DictionaryImage(ByteBuffer.wrap(writeImage(wordsArray)));
+        SimpleDictionary dict = new SimpleDictionary(image);
+
+        for (String word : wordsArray) {
+            assertTrue(dict.isWord(word));
+        }
+        assertFalse(dict.isWord("fish"));
+        assertEquals("catfishes", dict.getAnyWordStartingWith("catfish"));
+        assertNull(dict.getAnyWordStartingWith("catfishes"));
+        assertEquals("lives", dict.getGoodWordStartingWith("l"));
+    }
+
+    @Test
+    public void testImageAtOffset() throws IOException {
+        // Assets are mapped from the middle of the APK, so the image need not start at zero.
+        byte[] image = writeImage(wordsArray);
+        byte[] padded = new byte[image.length + 3];
+        System.arraycopy(image, 0, padded, 3, image.length);
+        ByteBuffer buffer = ByteBuffer.wrap(padded);
+        buffer.position(3);
+
+        assertTrue(new CompactDictionary(new DictionaryImage(buffer)).isWord("lives"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testBadMagic() throws IOException {
+        byte[] image = writeImage(wordsArray);
+        image[0] = 0;
+        new DictionaryImage(ByteBuffer.wrap(image));
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncated() throws IOException {
+        byte[] image = writeImage(wordsArray);
+        new DictionaryImage(ByteBuffer.wrap(Arrays.copyOf(image, image.length - 1)));
+    }
+}
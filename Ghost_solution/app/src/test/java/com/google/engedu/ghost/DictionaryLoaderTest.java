@@ -0,0 +1,151 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.ghost;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DictionaryLoaderTest {
+    // Runs everything on the calling thread.
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    // Collects what callbacks receive.
+    private static class RecordingCallback implements DictionaryLoader.Callback<String> {
+        final List<String> events = new ArrayList<>();
+        final CountDownLatch called = new CountDownLatch(1);
+
+        @Override
+        public void onLoaded(String dictionary) {
+            events.add(dictionary);
+            called.countDown();
+        }
+
+        @Override
+        public void onFailed(IOException e) {
+            events.add("failed: " + e.getMessage());
+            called.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(called.await(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testCallbacksWaitForTheLoad() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        DictionaryLoader<String> loader = new DictionaryLoader<>(
+                new DictionaryLoader.Source<String>() {
+                    @Override
+                    public String load() throws IOException {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            throw new IOException(e);
+                        }
+                        return "words";
+                    }
+                }).start();
+        RecordingCallback before = new RecordingCallback();
+        loader.whenLoaded(before, DIRECT);
+
+        assertFalse(loader.isDone());
+        assertNull(loader.getNow());
+        assertTrue(before.events.isEmpty());
+
+        release.countDown();
+        assertEquals("words", loader.get());
+        assertTrue(loader.isDone());
+        assertEquals("words", loader.getNow());
+        // The waiting callback runs on the loading thread, which may not have got to it yet.
+        before.await();
+        assertEquals(Arrays.asList("words"), before.events);
+        RecordingCallback after = new RecordingCallback();
+        loader.whenLoaded(after, DIRECT);
+        after.await();
+        assertEquals(Arrays.asList("words"), after.events);
+    }
+
+    @Test
+    public void testLoadFails() throws Exception {
+        DictionaryLoader<String> loader = new DictionaryLoader<>(
+                new DictionaryLoader.Source<String>() {
+                    @Override
+                    public String load() throws IOException {
+                        throw new IOException("no words");
+                    }
+                }).start(DIRECT);
+        RecordingCallback callback = new RecordingCallback();
+        loader.whenLoaded(callback, DIRECT);
+
+        assertEquals(Arrays.asList("failed: no words"), callback.events);
+        assertNull(loader.getNow());
+        try {
+            loader.get();
+            fail();
+        } catch (IOException e) {
+            assertEquals("no words", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testCancelDropsCallbacks() throws Exception {
+        final String dictionary = "words";
+        DictionaryLoader<String> loader = new DictionaryLoader<>(
+                new DictionaryLoader.Source<String>() {
+                    @Override
+                    public String load() {
+                        return dictionary;
+                    }
+                });
+        RecordingCallback callback = new RecordingCallback();
+        loader.whenLoaded(callback, DIRECT);
+        loader.cancel();
+        loader.start(DIRECT);
+
+        assertTrue(callback.events.isEmpty());
+        assertTrue(loader.isDone());
+        assertNull(loader.getNow());
+
+        DictionaryLoader<String> loaded = new DictionaryLoader<>(
+                new DictionaryLoader.Source<String>() {
+                    @Override
+                    public String load() {
+                        return dictionary;
+                    }
+                }).start(DIRECT);
+        assertSame(dictionary, loaded.get());
+    }
+}
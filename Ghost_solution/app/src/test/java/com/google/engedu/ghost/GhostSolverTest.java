@@ -0,0 +1,127 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.ghost;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GhostSolverTest {
+
+    private GhostSolver solve(int minWordLength, String... words) {
+        return new GhostSolver(new CompactTrie(words), minWordLength, new Random(0));
+    }
+
+    @Test
+    public void testSingleWord() {
+        GhostSolver solver = solve(4, "aaaa");
+
+        // The second player has to complete the word.
+        assertTrue(solver.canWin(""));
+        assertFalse(solver.canWin("a"));
+        assertTrue(solver.canWin("aa"));
+        assertFalse(solver.canWin("aaa"));
+        // The word is complete, so whoever made it has already lost.
+        assertTrue(solver.canWin("aaaa"));
+        // Not a prefix of any word, so whoever made it gets challenged.
+        assertFalse(solver.canWin("b"));
+    }
+
+    @Test
+    public void testShortWordsDoNotEndTheGame() {
+        assertTrue(solve(4, "cat", "cats").canWin(""));
+        assertFalse(solve(3, "cat", "cats").canWin(""));
+        // A short word that can't be extended still ends the game.
+        assertTrue(solve(4, "cat", "dog").canWin("cat"));
+    }
+
+    @Test
+    public void testGetWinningWordStartingWith() {
+        // Starting with b wins: "bee" is too short, so the opponent must finish "beet". Starting
+        // with a loses, since we would have to finish "abcde".
+        GhostSolver solver = solve(4, "abcde", "bee", "beet");
+
+        assertEquals("beet", solver.getWinningWordStartingWith(""));
+        assertEquals("abcde", solver.getWinningWordStartingWith("a"));
+        assertNull(solver.getWinningWordStartingWith("ab"));
+        assertNull(solver.getWinningWordStartingWith("beet"));
+        assertNull(solver.getWinningWordStartingWith("q"));
+    }
+
+    @Test
+    public void testMatchesGameTreeSearch() {
+        Random random = new Random(1);
+        for (int round = 0; round < 200; round++) {
+            String[] words = new String[1 + random.nextInt(8)];
+            for (int i = 0; i < words.length; i++) {
+                char[] word = new char[1 + random.nextInt(6)];
+                for (int j = 0; j < word.length; j++) {
+                    word[j] = (char) ('a' + random.nextInt(3));
+                }
+                words[i] = new String(word);
+            }
+            int minWordLength = 1 + random.nextInt(4);
+            GhostSolver solver = solve(minWordLength, words);
+            Set<String> wordSet = new HashSet<>(Arrays.asList(words));
+            for (String word : words) {
+                for (int length = 0; length <= word.length(); length++) {
+                    String prefix = word.substring(0, length);
+                    assertEquals(Arrays.toString(words) + " " + minWordLength + " " + prefix,
+                            canWin(wordSet, minWordLength, prefix), solver.canWin(prefix));
+                    String winning = solver.getWinningWordStartingWith(prefix);
+                    if (winning != null) {
+                        assertTrue(wordSet.contains(winning));
+                        assertFalse(canWin(wordSet, minWordLength,
+                                winning.substring(0, length + 1)));
+                    }
+                }
+            }
+        }
+    }
+
+    // Plays out every possible game from prefix.
+    private static boolean canWin(Set<String> words, int minWordLength, String prefix) {
+        boolean canExtend = false;
+        for (String word : words) {
+            if (word.length() > prefix.length() && word.startsWith(prefix)) {
+                canExtend = true;
+            }
+        }
+        if (words.contains(prefix) && (prefix.length() >= minWordLength || !canExtend)) {
+            return true;
+        }
+        for (char c = 'a'; c <= 'c'; c++) {
+            String next = prefix + c;
+            for (String word : words) {
+                if (word.startsWith(next)) {
+                    if (!canWin(words, minWordLength, next)) {
+                        return true;
+                    }
+                    break;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,143 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.ghost;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ShardedDictionaryTest {
+    String[] wordsArray = {"apple", "cat", "caterwaul", "caterwauled", "caterwauling", "caterwauls",
+            "catfish", "catfishes", "cats", "dog", "dogs", "dogfish", "dogfishes", "life", "lives"};
+
+    private ShardedDictionary newDictionary(int maxShards) {
+        return new ShardedDictionary(new ArrayList<>(Arrays.asList(wordsArray)), maxShards);
+    }
+
+    @Test
+    public void testIsWord() {
+        ShardedDictionary dict = newDictionary(ShardedDictionary.DEFAULT_MAX_SHARDS);
+
+        assertTrue(dict.isWord("cats"));
+        assertTrue(dict.isWord("dogfishes"));
+        assertTrue(dict.isWord("apple"));
+        // Too short for Ghost.
+        assertFalse(dict.isWord("cat"));
+        assertFalse(dict.isWord("c"));
+        assertFalse(dict.isWord(""));
+        assertFalse(dict.isWord("fish"));
+        assertFalse(dict.isWord("zebra"));
+    }
+
+    @Test
+    public void testBuildsOnlyTouchedShards() {
+        ShardedDictionary dict = newDictionary(ShardedDictionary.DEFAULT_MAX_SHARDS);
+        assertEquals(0, dict.getBuiltShardCount());
+
+        assertTrue(dict.isWord("cats"));
+        assertEquals("catfishes", dict.getAnyWordStartingWith("catfishe"));
+        assertEquals(1, dict.getBuiltShardCount());
+
+        // No word starts with z, so there is nothing to build.
+        assertNull(dict.getAnyWordStartingWith("z"));
+        assertEquals(1, dict.getBuiltShardCount());
+
+        assertTrue(dict.isWord("dogs"));
+        assertEquals(2, dict.getBuiltShardCount());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedShard() {
+        ShardedDictionary dict = newDictionary(2);
+
+        assertTrue(dict.isWord("cats"));
+        assertTrue(dict.isWord("dogs"));
+        assertTrue(dict.isWord("cats"));
+        // Drops the d shard, which was used less recently than the c one.
+        assertTrue(dict.isWord("life"));
+        assertEquals(2, dict.getBuiltShardCount());
+
+        // Evicted shards are rebuilt when they are needed again.
+        assertTrue(dict.isWord("dogfish"));
+        assertEquals("dogfishes", dict.getGoodWordStartingWith("dogfishe"));
+        assertEquals(2, dict.getBuiltShardCount());
+    }
+
+    @Test
+    public void testGetAnyWordStartingWith() {
+        ShardedDictionary dict = newDictionary(ShardedDictionary.DEFAULT_MAX_SHARDS);
+
+        assertNull(dict.getAnyWordStartingWith("notaword"));
+        assertNull(dict.getAnyWordStartingWith("caq"));
+        assertNotNull(dict.getAnyWordStartingWith(""));
+        assertEquals(null, dict.getAnyWordStartingWith("catfishes"));
+        assertTrue(dict.getAnyWordStartingWith("cat").startsWith("cat"));
+        assertFalse("cat".equals(dict.getAnyWordStartingWith("cat")));
+        assertEquals("lives", dict.getAnyWordStartingWith("liv"));
+        assertEquals("apple", dict.getGoodWordStartingWith("a"));
+    }
+
+    @Test
+    public void testEmptyPrefixPicksFromAllShards() {
+        ShardedDictionary dict = new ShardedDictionary(
+                ByteBuffer.wrap("abcd\nabce\nabcf\nbcde\n".getBytes()), 1, new Random(0));
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 4000; i++) {
+            String word = dict.getAnyWordStartingWith("");
+            Integer count = counts.get(word);
+            counts.put(word, count == null ? 1 : count + 1);
+        }
+
+        assertEquals(4, counts.size());
+        for (String word : new String[] {"abcd", "abce", "abcf", "bcde"}) {
+            assertTrue(word, Math.abs(counts.get(word) - 1000) < 150);
+        }
+    }
+
+    @Test
+    public void testUnsortedWordList() throws IOException {
+        String words = "  dogs \r\ncats\n\nbee\ndogfish\nabb\u00e9\n\u00e9clair\ncatfish";
+        ShardedDictionary dict = new ShardedDictionary(
+                new ByteArrayInputStream(words.getBytes("UTF-8")));
+
+        assertTrue(dict.isWord("dogs"));
+        assertTrue(dict.isWord("dogfish"));
+        assertTrue(dict.isWord("cats"));
+        assertTrue(dict.isWord("catfish"));
+        assertTrue(dict.isWord("abb\u00e9"));
+        assertTrue(dict.isWord("\u00e9clair"));
+        assertFalse(dict.isWord("bee"));
+        assertEquals("catfish", dict.getAnyWordStartingWith("catf"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxShardsMustBePositive() {
+        newDictionary(0);
+    }
+}
@@ -109,4 +109,28 @@ public class SimpleDictionaryTest {
         assertEquals(0, dict.getGoodWordStartingWith("ca").length() % 2);
         assertEquals(1, dict.getGoodWordStartingWith("cat").length() % 2);
     }
+
+    @Test
+    public void testPrefixNotFound() {
+        ArrayList<String> words = new ArrayList<>(Arrays.asList(wordsArray));
+        SimpleDictionary dict = new SimpleDictionary(words, 0);
+
+        assertEquals(-1, dict.findFirstIndexStartingWith("b"));
+        assertEquals(-1, dict.findLastIndexStartingWith("b"));
+        assertEquals(-1, dict.findFirstIndexStartingWith("aa"));
+        assertEquals(-1, dict.findLastIndexStartingWith("zebra"));
+        // A word is not found by a longer prefix.
+        assertEquals(-1, dict.findFirstIndexStartingWith("apples"));
+        assertFalse(dict.isWord("apples"));
+        assertFalse(dict.isWord(""));
+    }
+
+    @Test
+    public void testGetGoodWordWithOnlyOneBadWord() {
+        ArrayList<String> words = new ArrayList<>(Arrays.asList("apple", "cat", "dog"));
+        SimpleDictionary dict = new SimpleDictionary(words, 0);
+
+        // No good word starts with "ap", so the only word that does is returned.
+        assertEquals("apple", dict.getGoodWordStartingWith("ap"));
+    }
 }
@@ -0,0 +1,134 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.ghost;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TrieNodeTest {
+
+    @Test
+    public void testLongWord() {
+        // Long enough that walking it recursively would overflow the stack.
+        char[] letters = new char[100000];
+        Arrays.fill(letters, 'a');
+        String word = new String(letters);
+        TrieNode root = new TrieNode();
+        root.add(word);
+
+        assertTrue(root.isWord(word));
+        assertFalse(root.isWord(word.substring(1)));
+        assertEquals(word, root.getAnyWordStartingWith("a"));
+        assertEquals(word, root.getGoodWordStartingWith(""));
+    }
+
+    @Test
+    public void testCharSequences() {
+        TrieNode root = new TrieNode();
+        root.add(new StringBuilder("cat"));
+        root.add("cats");
+
+        assertTrue(root.isWord(new StringBuilder("cat")));
+        assertEquals("cats", root.getAnyWordStartingWith(new StringBuilder("cat")));
+        assertEquals("cats", root.getGoodWordStartingWith(new StringBuilder("ca")));
+    }
+
+    @Test
+    public void testResultsAreNotReused() {
+        TrieNode root = new TrieNode();
+        root.add("cat");
+        root.add("dog");
+
+        String cat = root.getAnyWordStartingWith("c");
+        String dog = root.getGoodWordStartingWith("d");
+        assertEquals("cat", cat);
+        assertEquals("dog", dog);
+        assertNull(root.getAnyWordStartingWith("cat"));
+        assertEquals("", new TrieNode().getAnyWordStartingWith(null));
+    }
+
+    @Test
+    public void testUniformCompletions() {
+        // Picking a random child at each step would give "ax" half the time.
+        TrieNode root = new TrieNode(new Random(0));
+        for (String word : new String[] {"ab", "abc", "abcd", "ax", "b"}) {
+            root.add(word);
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 4000; i++) {
+            String word = root.getAnyWordStartingWith("a");
+            Integer count = counts.get(word);
+            counts.put(word, count == null ? 1 : count + 1);
+        }
+
+        assertEquals(4, counts.size());
+        for (String word : new String[] {"ab", "abc", "abcd", "ax"}) {
+            assertNotNull(counts.get(word));
+            assertTrue(word, Math.abs(counts.get(word) - 1000) < 150);
+        }
+    }
+
+    @Test
+    public void testDuplicateWordsAreCountedOnce() {
+        TrieNode root = new TrieNode(new Random(0));
+        root.add("cat");
+        root.add("cats");
+        root.add("cats");
+
+        assertEquals(Arrays.asList("cat", "cats"), root.getRandomWordsStartingWith("", 5));
+    }
+
+    @Test
+    public void testGetRandomWordsStartingWith() {
+        TrieNode root = new TrieNode(new Random(0));
+        List<String> all = Arrays.asList("cat", "caterwaul", "catfish", "cats", "dog", "dogs");
+        for (String word : all) {
+            root.add(word);
+        }
+
+        List<String> words = root.getRandomWordsStartingWith("cat", 2);
+        assertEquals(2, words.size());
+        assertFalse(words.get(0).equals(words.get(1)));
+        for (String word : words) {
+            assertTrue(word.startsWith("cat") && word.length() > 3);
+        }
+        // Asking for more than there are returns all of them, sorted.
+        assertEquals(Arrays.asList("caterwaul", "catfish", "cats"),
+                root.getRandomWordsStartingWith("cat", 10));
+        assertEquals(all, root.getRandomWordsStartingWith("", all.size()));
+        assertEquals(Collections.emptyList(), root.getRandomWordsStartingWith("cow", 3));
+        assertEquals(Collections.emptyList(), root.getRandomWordsStartingWith("dogs", 3));
+        assertEquals(new ArrayList<String>(), root.getRandomWordsStartingWith("cat", 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetRandomWordsWithNegativeCount() {
+        new TrieNode().getRandomWordsStartingWith("", -1);
+    }
+}
@@ -18,6 +18,7 @@ package com.google.engedu.palindromes;
 
 import android.util.Range;
 
+import java.util.Arrays;
 import java.util.HashMap;
 
 /**
@@ -54,10 +55,102 @@ public class PalindromeHelper {
         return true;
     }
 
+    /**
+     * Finds the longest palindrome around every center of the text with Manacher's algorithm, in
+     * linear time. Centers are counted in half characters from start: center c is on character
+     * start + c / 2 if c is even, and between it and the next if c is odd. Each of these
+     * palindromes is maximal, since it can't be extended at either end, and every maximal
+     * palindrome is one of them.
+     * @param text the text to check, all lower-cased and without special chars.
+     * @param start inclusive
+     * @param end exclusive
+     * @return For each of the 2 * (end - start) - 1 centers, the length of the longest
+     *     palindrome around it, which starts at start + (c + 1) / 2 - length / 2.
+     */
+    public static int[] findMaximalPalindromes(char[] text, int start, int end) {
+        int length = end - start;
+        if (length <= 0) {
+            return new int[0];
+        }
+        int[] lengths = new int[2 * length - 1];
+        // Odd palindromes: the radius around each character, counting the character itself.
+        // [left, right] is the palindrome found so far that reaches furthest right, and a
+        // palindrome around a character inside it is at least as long as the one around the
+        // mirrored character, as far as it stays inside.
+        int left = 0;
+        int right = -1;
+        for (int i = 0; i < length; i++) {
+            int radius = i > right ? 1 : Math.min((lengths[2 * (left + right - i)] + 1) / 2,
+                    right - i + 1);
+            while (i - radius >= 0 && i + radius < length
+                    && text[start + i - radius] == text[start + i + radius]) {
+                radius++;
+            }
+            lengths[2 * i] = 2 * radius - 1;
+            if (i + radius - 1 > right) {
+                left = i - radius + 1;
+                right = i + radius - 1;
+            }
+        }
+        // Even palindromes: the radius around the gap before each character.
+        left = 0;
+        right = -1;
+        for (int i = 1; i < length; i++) {
+            int radius = i > right ? 0 : Math.min(lengths[2 * (left + right - i + 1) - 1] / 2,
+                    right - i + 1);
+            while (i - radius - 1 >= 0 && i + radius < length
+                    && text[start + i - radius - 1] == text[start + i + radius]) {
+                radius++;
+            }
+            lengths[2 * i - 1] = 2 * radius;
+            if (i + radius - 1 > right) {
+                left = i - radius;
+                right = i + radius - 1;
+            }
+        }
+        return lengths;
+    }
+
+    /**
+     * Finds the longest palindrome in linear time, with findMaximalPalindromes.
+     * @param text the text to check, all lower-cased and without special chars.
+     * @param start inclusive
+     * @param end exclusive
+     * @return The first of the longest palindromes, or "" if the text is empty.
+     */
+    public static String findLongestPalindrome(char[] text, int start, int end) {
+        int[] lengths = findMaximalPalindromes(text, start, end);
+        if (lengths.length == 0) {
+            return "";
+        }
+        int best = 0;
+        for (int c = 1; c < lengths.length; c++) {
+            int bestStart = (best + 1) / 2 - lengths[best] / 2;
+            if (lengths[c] > lengths[best]
+                    || (lengths[c] == lengths[best] && (c + 1) / 2 - lengths[c] / 2 < bestStart)) {
+                best = c;
+            }
+        }
+        return new String(text, start + (best + 1) / 2 - lengths[best] / 2, lengths[best]);
+    }
+
+    /**
+     * Counts the distinct palindromes in the text in linear time, with a PalindromicTree.
+     * @param text the text to check, all lower-cased and without special chars.
+     * @param start inclusive
+     * @param end exclusive
+     */
+    public static int countDistinctPalindromes(char[] text, int start, int end) {
+        PalindromicTree tree = new PalindromicTree();
+        tree.add(text, start, end);
+        return tree.getDistinctCount();
+    }
+
     public PalindromeGroup breakIntoPalindromes(char[] text, int start, int end) {
         //return greedyBreakIntoPalindromes(text, start, end);
         //return recursiveBreakIntoPalindromes(text, start, end);
-        return dynamicBreakIntoPalindromes(text, start, end);
+        //return dynamicBreakIntoPalindromes(text, start, end);
+        return bottomUpBreakIntoPalindromes(text, start, end);
     }
 
     /**
@@ -136,4 +229,47 @@ public class PalindromeHelper {
         mSavedPalindromes.put(key, bestGroup);
         return bestGroup;
     }
+
+    /**
+     * Bottom-up implementation: The same choices as the dynamic implementation, in O(n^2) time
+     * and O(n) memory. Every palindrome is found by expanding around each of its possible
+     * centers, from the last center to the first. By the time a palindrome is found, the best
+     * break of the text after it is known, because every palindrome starting there has a later
+     * center. So each position only needs the fewest palindromes the rest of the text breaks
+     * into, and where the first of them ends.
+     */
+    private PalindromeGroup bottomUpBreakIntoPalindromes(char[] text, int start, int end) {
+        int length = end - start;
+        if (length <= 0) {
+            return null;
+        }
+        // For each offset from start, the fewest palindromes the text from there to end breaks
+        // into, and the offset where the first of them ends.
+        int[] counts = new int[length + 1];
+        int[] firstEnds = new int[length + 1];
+        Arrays.fill(counts, Integer.MAX_VALUE);
+        counts[length] = 0;
+        // Centers are counted in half characters: even ones are on a character, odd ones
+        // between two.
+        for (int center = 2 * length - 2; center >= 0; center--) {
+            int left = center / 2;
+            int right = left + center % 2;
+            while (left >= 0 && right < length && text[start + left] == text[start + right]) {
+                int count = counts[right + 1] + 1;
+                // Like the dynamic implementation, prefer the shortest first palindrome.
+                if (count < counts[left]
+                        || (count == counts[left] && right + 1 < firstEnds[left])) {
+                    counts[left] = count;
+                    firstEnds[left] = right + 1;
+                }
+                left--;
+                right++;
+            }
+        }
+        PalindromeGroup group = new PalindromeGroup(text, start, start + firstEnds[0]);
+        for (int i = firstEnds[0]; i < length; i = firstEnds[i]) {
+            group.append(new PalindromeGroup(text, start + i, start + firstEnds[i]));
+        }
+        return group;
+    }
 }
@@ -0,0 +1,194 @@
+/*
+ *  Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.google.engedu.palindromes;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * A palindromic tree (eertree) of text that is added one character at a time: one node for each
+ * distinct palindrome in the text, linked to the palindrome that is one character shorter at each
+ * end and to its longest proper palindromic suffix. Adding a character only walks those suffix
+ * links from the longest palindrome that ends the text, which takes amortized constant time
+ * besides looking up children, so text can be streamed through it, e.g. from a file, without a
+ * copy as one big String.
+ *
+ * The characters themselves are kept, since the longest palindromic suffix can reach back one
+ * character further with each character added, so any of them may be compared again. With at
+ * most one node per character, the whole tree is a few times the size of the text.
+ *
+ * Nodes live in flat arrays. The children of a node form a linked list through nextSibling.
+ */
+public class PalindromicTree {
+    private static final int NONE = -1;
+    // The roots: a palindrome of length -1, whose children have one character, and the empty
+    // palindrome, whose children have two.
+    private static final int IMAGINARY = 0;
+    private static final int EMPTY = 1;
+
+    private int[] lengths = new int[1024];
+    private int[] suffixLinks = new int[1024];
+    private int[] firstChild = new int[1024];
+    private int[] nextSibling = new int[1024];
+    private char[] labels = new char[1024];
+    private int nodeCount;
+    // The node of the longest palindrome that ends the text.
+    private int last = EMPTY;
+
+    private char[] text = new char[1024];
+    private int length;
+
+    private int longestLength;
+    private int longestStart;
+
+    public PalindromicTree() {
+        lengths[IMAGINARY] = -1;
+        suffixLinks[IMAGINARY] = IMAGINARY;
+        lengths[EMPTY] = 0;
+        suffixLinks[EMPTY] = IMAGINARY;
+        firstChild[IMAGINARY] = NONE;
+        firstChild[EMPTY] = NONE;
+        nextSibling[IMAGINARY] = NONE;
+        nextSibling[EMPTY] = NONE;
+        nodeCount = 2;
+    }
+
+    /**
+     * Builds the tree of everything a reader reads, keeping only letters and digits, lower-cased,
+     * like the text the rest of the app works on. The reader is not closed.
+     */
+    public static PalindromicTree read(Reader in) throws IOException {
+        PalindromicTree tree = new PalindromicTree();
+        char[] chunk = new char[8192];
+        int count;
+        while ((count = in.read(chunk)) != -1) {
+            for (int i = 0; i < count; i++) {
+                char c = chunk[i];
+                if (Character.isLetterOrDigit(c)) {
+                    tree.add(Character.toLowerCase(c));
+                }
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * Adds the text from start (inclusive) to end (exclusive).
+     */
+    public void add(char[] chars, int start, int end) {
+        for (int i = start; i < end; i++) {
+            add(chars[i]);
+        }
+    }
+
+    public void add(char c) {
+        if (length == text.length) {
+            text = Arrays.copyOf(text, 2 * text.length);
+        }
+        int position = length;
+        text[position] = c;
+        length++;
+
+        int parent = findSuffixBefore(last, c, position);
+        int node = findChild(parent, c);
+        if (node == NONE) {
+            node = addNode(parent, c, lengths[parent] + 2);
+            if (lengths[node] == 1) {
+                suffixLinks[node] = EMPTY;
+            } else {
+                suffixLinks[node] = findChild(findSuffixBefore(suffixLinks[parent], c, position),
+                        c);
+            }
+        }
+        last = node;
+        if (lengths[node] > longestLength) {
+            longestLength = lengths[node];
+            longestStart = position + 1 - longestLength;
+        }
+    }
+
+    /**
+     * Walks the suffix links from node to the longest palindrome that the character before it
+     * and c, at position, extend to a longer palindrome.
+     */
+    private int findSuffixBefore(int node, char c, int position) {
+        while (true) {
+            int before = position - lengths[node] - 1;
+            // The imaginary root always matches, since it extends to c alone.
+            if (node == IMAGINARY || (before >= 0 && text[before] == c)) {
+                return node;
+            }
+            node = suffixLinks[node];
+        }
+    }
+
+    private int findChild(int node, char c) {
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            if (labels[child] == c) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    private int addNode(int parent, char c, int length) {
+        if (nodeCount == lengths.length) {
+            int capacity = 2 * lengths.length;
+            lengths = Arrays.copyOf(lengths, capacity);
+            suffixLinks = Arrays.copyOf(suffixLinks, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            labels = Arrays.copyOf(labels, capacity);
+        }
+        int added = nodeCount++;
+        lengths[added] = length;
+        labels[added] = c;
+        firstChild[added] = NONE;
+        nextSibling[added] = firstChild[parent];
+        firstChild[parent] = added;
+        return added;
+    }
+
+    /**
+     * @return The number of characters added.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @return The number of distinct non-empty palindromes in the text.
+     */
+    public int getDistinctCount() {
+        return nodeCount - 2;
+    }
+
+    /**
+     * @return The first of the longest palindromes in the text, or "" if there is no text.
+     */
+    public String getLongestPalindrome() {
+        return new String(text, longestStart, longestLength);
+    }
+
+    /**
+     * @return The position of the first character of getLongestPalindrome in the text.
+     */
+    public int getLongestStart() {
+        return longestStart;
+    }
+}
@@ -23,6 +23,11 @@ import org.junit.runner.RunWith;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
 import static org.junit.Assert.*;
 
 /**
@@ -105,4 +110,152 @@ public class PalindromeHelperTest {
         assertEquals("d", group.getStrings().get(3));
         assertEquals("eeeeee", group.getStrings().get(4));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBreakIntoPalindromesIsMinimal() {
+        Random random = new Random(0);
+        for (int round = 0; round < 500; round++) {
+            char[] text = new char[1 + random.nextInt(12)];
+            for (int i = 0; i < text.length; i++) {
+                text[i] = (char) ('a' + random.nextInt(3));
+            }
+            PalindromeGroup group = new PalindromeHelper().breakIntoPalindromes(text, 0,
+                    text.length);
+            assertBreaksInto(text, group);
+            assertEquals(countFewestPalindromes(text, 0), group.length());
+        }
+    }
+
+    @Test
+    public void testBreakIntoPalindromesLongText() {
+        Random random = new Random(0);
+        char[] text = new char[100000];
+        for (int i = 0; i < text.length; i++) {
+            text[i] = (char) ('a' + random.nextInt(3));
+        }
+        assertBreaksInto(text, new PalindromeHelper().breakIntoPalindromes(text, 0, text.length));
+
+        // One long palindrome, in the middle of other text.
+        text = new char[20002];
+        Arrays.fill(text, 'a');
+        text[0] = 'b';
+        text[text.length - 1] = 'c';
+        PalindromeGroup group = new PalindromeHelper().breakIntoPalindromes(text, 0, text.length);
+        assertEquals(3, group.length());
+        assertEquals(20000, group.getStrings().get(1).length());
+        group = new PalindromeHelper().breakIntoPalindromes(text, 1, text.length - 1);
+        assertEquals(1, group.length());
+    }
+
+    @Test
+    public void testFindMaximalPalindromes() {
+        char[] text = "xabbac".toCharArray();
+        assertArrayEquals(new int[] {1, 0, 1, 0, 1, 4, 1, 0, 1, 0, 1},
+                PalindromeHelper.findMaximalPalindromes(text, 0, text.length));
+        assertArrayEquals(new int[] {1, 2, 1},
+                PalindromeHelper.findMaximalPalindromes(text, 2, 4));
+        assertEquals(0, PalindromeHelper.findMaximalPalindromes(text, 3, 3).length);
+
+        Random random = new Random(0);
+        for (int round = 0; round < 500; round++) {
+            text = randomText(random, 1 + random.nextInt(30));
+            int start = random.nextInt(text.length);
+            int end = start + 1 + random.nextInt(text.length - start);
+            int[] lengths = PalindromeHelper.findMaximalPalindromes(text, start, end);
+            assertEquals(2 * (end - start) - 1, lengths.length);
+            for (int c = 0; c < lengths.length; c++) {
+                // Expand around the center by brute force.
+                int left = start + c / 2;
+                int right = start + (c + 1) / 2;
+                if (left != right) {
+                    left++;
+                    right--;
+                }
+                while (left > start && right < end - 1 && text[left - 1] == text[right + 1]) {
+                    left--;
+                    right++;
+                }
+                assertEquals(right - left + 1, lengths[c]);
+                assertEquals(left, start + (c + 1) / 2 - lengths[c] / 2);
+            }
+        }
+    }
+
+    @Test
+    public void testFindLongestPalindrome() {
+        char[] text = "abacdcabba".toCharArray();
+        assertEquals("bacdcab", PalindromeHelper.findLongestPalindrome(text, 0, text.length));
+        assertEquals("aba", PalindromeHelper.findLongestPalindrome(text, 0, 4));
+        assertEquals("", PalindromeHelper.findLongestPalindrome(text, 2, 2));
+
+        Random random = new Random(0);
+        for (int round = 0; round < 500; round++) {
+            text = randomText(random, 1 + random.nextInt(30));
+            String expected = "";
+            for (int start = 0; start < text.length; start++) {
+                for (int end = start + 1; end <= text.length; end++) {
+                    if (end - start > expected.length()
+                            && PalindromeHelper.isPalindrome(text, start, end)) {
+                        expected = new String(text, start, end - start);
+                    }
+                }
+            }
+            assertEquals(expected, PalindromeHelper.findLongestPalindrome(text, 0, text.length));
+        }
+    }
+
+    @Test
+    public void testCountDistinctPalindromes() {
+        char[] text = "abaaba".toCharArray();
+        // a, b, aa, aba, baab, abaaba
+        assertEquals(6, PalindromeHelper.countDistinctPalindromes(text, 0, text.length));
+        assertEquals(0, PalindromeHelper.countDistinctPalindromes(text, 1, 1));
+
+        Random random = new Random(0);
+        for (int round = 0; round < 500; round++) {
+            text = randomText(random, 1 + random.nextInt(30));
+            Set<String> palindromes = new HashSet<>();
+            for (int start = 0; start < text.length; start++) {
+                for (int end = start + 1; end <= text.length; end++) {
+                    if (PalindromeHelper.isPalindrome(text, start, end)) {
+                        palindromes.add(new String(text, start, end - start));
+                    }
+                }
+            }
+            assertEquals(palindromes.size(),
+                    PalindromeHelper.countDistinctPalindromes(text, 0, text.length));
+        }
+    }
+
+    private static char[] randomText(Random random, int length) {
+        int letters = 1 + random.nextInt(3);
+        char[] text = new char[length];
+        for (int i = 0; i < length; i++) {
+            text[i] = (char) ('a' + random.nextInt(letters));
+        }
+        return text;
+    }
+
+    private static void assertBreaksInto(char[] text, PalindromeGroup group) {
+        StringBuilder joined = new StringBuilder();
+        for (String palindrome : group.getStrings()) {
+            char[] chars = palindrome.toCharArray();
+            assertTrue(PalindromeHelper.isPalindrome(chars, 0, chars.length));
+            joined.append(palindrome);
+        }
+        assertEquals(new String(text), joined.toString());
+    }
+
+    private static int countFewestPalindromes(char[] text, int start) {
+        if (start == text.length) {
+            return 0;
+        }
+        int fewest = Integer.MAX_VALUE;
+        for (int end = start + 1; end <= text.length; end++) {
+            if (PalindromeHelper.isPalindrome(text, start, end)) {
+                fewest = Math.min(fewest, 1 + countFewestPalindromes(text, end));
+            }
+        }
+        return fewest;
+    }
+}
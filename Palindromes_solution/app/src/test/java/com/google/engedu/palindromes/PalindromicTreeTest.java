@@ -0,0 +1,81 @@
+/**
+ *  Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.palindromes;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PalindromicTreeTest {
+    @Test
+    public void testRead() throws IOException {
+        PalindromicTree tree = PalindromicTree.read(
+                new StringReader("Madam, I'm Adam. Was it a cat I saw?"));
+        assertEquals("wasitacatisaw", tree.getLongestPalindrome());
+        assertEquals(11, tree.getLongestStart());
+        assertEquals(24, tree.getLength());
+
+        tree = PalindromicTree.read(new StringReader(""));
+        assertEquals("", tree.getLongestPalindrome());
+        assertEquals(0, tree.getDistinctCount());
+    }
+
+    @Test
+    public void testMatchesPalindromeHelper() throws IOException {
+        Random random = new Random(0);
+        for (int round = 0; round < 200; round++) {
+            char[] text = new char[1 + random.nextInt(3000)];
+            int letters = 1 + random.nextInt(4);
+            for (int i = 0; i < text.length; i++) {
+                text[i] = (char) ('a' + random.nextInt(letters));
+            }
+            PalindromicTree tree = PalindromicTree.read(new StringReader(new String(text)));
+            String longest = PalindromeHelper.findLongestPalindrome(text, 0, text.length);
+            assertEquals(longest, tree.getLongestPalindrome());
+            assertEquals(longest, new String(text, tree.getLongestStart(),
+                    longest.length()));
+            assertEquals(text.length, tree.getLength());
+        }
+    }
+
+    @Test
+    public void testAdd() {
+        PalindromicTree tree = new PalindromicTree();
+        char[] start = "xyzzyx".toCharArray();
+        tree.add(start, 0, start.length);
+        for (int i = 0; i < 1000; i++) {
+            tree.add((char) ('a' + i % 3));
+        }
+        assertEquals("xyzzyx", tree.getLongestPalindrome());
+        assertEquals(0, tree.getLongestStart());
+        // x, y, z, zz, yzzy, xyzzyx, a, b, c
+        assertEquals(9, tree.getDistinctCount());
+
+        // Mirroring the text makes the whole of it one palindrome, so none of it can be
+        // forgotten while streaming.
+        for (int i = 999; i >= 0; i--) {
+            tree.add((char) ('a' + i % 3));
+        }
+        tree.add(start, 0, start.length);
+        assertEquals(2012, tree.getLongestPalindrome().length());
+        assertEquals(0, tree.getLongestStart());
+    }
+}
@@ -0,0 +1,345 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.wordladder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Solves many ladders at once. The queries are grouped by start word, and a start word with many
+ * end words gets a single breadth first search, whose tree answers all of its queries: the ladder
+ * to any end word is read off the tree's parent pointers. On the 4-letter words such a search
+ * costs about as much as 50 bidirectional searches, so the queries of start words with fewer
+ * end words are answered one at a time by CsrWordGraph's search, unless a tree for their start
+ * word is still cached. The groups are spread over a fixed number of threads, and the most
+ * recently built trees are kept in an LRU cache for later batches.
+ *
+ * A tree holds only the words its search reached, as sorted (word, parent) pairs, so caching one
+ * costs 8 bytes per reached word rather than an array over the whole graph.
+ */
+public class BatchLadderSolver {
+    /**
+     * A query for a ladder from start to end.
+     */
+    public static class Pair {
+        public final String start;
+        public final String end;
+
+        public Pair(String start, String end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * The words reached by a search from one word, as (word << 32 | parent) entries sorted by
+     * word. The search stops once it has reached all the words it was built for, so a word that
+     * is missing from an incomplete tree may still be within maxSteps.
+     */
+    private static class Tree {
+        final long[] entries;
+        final boolean complete;
+
+        Tree(long[] entries, boolean complete) {
+            this.entries = entries;
+            this.complete = complete;
+        }
+    }
+
+    private final CsrWordGraph graph;
+    private final int maxSteps;
+    private final int threadCount;
+    private final int minTreeTargets;
+    // Guarded by itself.
+    private final LinkedHashMap<String, Tree> trees;
+
+    private BatchLadderSolver(CsrWordGraph graph, Builder builder) {
+        this.graph = graph;
+        maxSteps = builder.maxSteps;
+        threadCount = builder.threadCount;
+        minTreeTargets = builder.minTreeTargets;
+        final int cacheSize = builder.cacheSize;
+        trees = new LinkedHashMap<String, Tree>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Tree> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Finds a shortest ladder for each pair, like CsrWordGraph.findPath.
+     * @return The ladders, in the order of the pairs, with null where there is none.
+     */
+    public List<List<String>> findPaths(List<Pair> pairs) {
+        final List<List<String>> paths = new ArrayList<>(Collections.<List<String>>nCopies(
+                pairs.size(), null));
+        // The indexes of the queries from each start word.
+        LinkedHashMap<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.size(); i++) {
+            Pair pair = pairs.get(i);
+            if (pair.start == null || pair.end == null || pair.start.equals(pair.end)
+                    || !graph.isWord(pair.start) || !graph.isWord(pair.end)) {
+                continue;
+            }
+            List<Integer> group = groups.get(pair.start);
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(pair.start, group);
+            }
+            group.add(i);
+        }
+        final List<Pair> queries = pairs;
+        final List<String> starts = new ArrayList<>(groups.keySet());
+        final List<List<Integer>> queryGroups = new ArrayList<>(groups.values());
+        if (threadCount == 1 || starts.size() < 2) {
+            solve(starts, queryGroups, 0, starts.size(), queries, paths);
+            return paths;
+        }
+
+        int chunkCount = Math.min(threadCount, starts.size());
+        ExecutorService executor = Executors.newFixedThreadPool(chunkCount);
+        try {
+            List<Future<Void>> chunks = new ArrayList<>();
+            for (int i = 0; i < chunkCount; i++) {
+                final int start = (int) ((long) starts.size() * i / chunkCount);
+                final int end = (int) ((long) starts.size() * (i + 1) / chunkCount);
+                chunks.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        solve(starts, queryGroups, start, end, queries, paths);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while finding ladders", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not find ladders", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return paths;
+    }
+
+    /**
+     * Answers the groups of queries from starts[from] up to starts[to]. Each group writes its
+     * own slots of paths, but the writes of the chunks are published through the list's lock.
+     */
+    private void solve(List<String> starts, List<List<Integer>> queryGroups, int from, int to,
+                       List<Pair> queries, List<List<String>> paths) {
+        TreeSearch treeSearch = null;
+        CsrWordGraph.Search search = null;
+        for (int i = from; i < to; i++) {
+            String start = starts.get(i);
+            List<Integer> group = queryGroups.get(i);
+            Tree tree;
+            synchronized (trees) {
+                tree = trees.get(start);
+            }
+            if (tree == null && group.size() >= minTreeTargets) {
+                if (treeSearch == null) {
+                    treeSearch = new TreeSearch();
+                }
+                tree = treeSearch.run(graph.getId(start), queries, group);
+                synchronized (trees) {
+                    trees.put(start, tree);
+                }
+            }
+            for (int query : group) {
+                String end = queries.get(query).end;
+                List<String> path;
+                int entry = tree == null ? -1 : find(tree.entries, graph.getId(end));
+                if (entry >= 0) {
+                    path = getPath(tree.entries, entry);
+                } else if (tree != null && tree.complete) {
+                    path = null;
+                } else {
+                    if (search == null) {
+                        search = graph.newSearch();
+                    }
+                    path = search.findPath(start, end, maxSteps);
+                }
+                synchronized (paths) {
+                    paths.set(query, path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the ladder to the word of an entry off a search tree.
+     */
+    private List<String> getPath(long[] tree, int entry) {
+        ArrayList<String> path = new ArrayList<>();
+        while (true) {
+            path.add(graph.getWord((int) (tree[entry] >>> 32)));
+            int parent = (int) tree[entry];
+            if (parent == CsrWordGraph.NONE) {
+                break;
+            }
+            entry = find(tree, parent);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private static int find(long[] tree, int word) {
+        int low = 0;
+        int high = tree.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int id = (int) (tree[middle] >>> 32);
+            if (id < word) {
+                low = middle + 1;
+            } else if (id > word) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The scratch arrays of a breadth first search, reused by one thread for all its trees.
+     */
+    private class TreeSearch {
+        private final int[] parents = new int[graph.getWordCount()];
+        private final boolean[] reached = new boolean[graph.getWordCount()];
+        private final boolean[] wanted = new boolean[graph.getWordCount()];
+        private final int[] queue = new int[graph.getWordCount()];
+
+        /**
+         * Searches from a word until the end words of a group of queries are all reached, or
+         * out to maxSteps.
+         */
+        Tree run(int start, List<Pair> queries, List<Integer> group) {
+            int remaining = 0;
+            for (int query : group) {
+                int end = graph.getId(queries.get(query).end);
+                if (!wanted[end]) {
+                    wanted[end] = true;
+                    remaining++;
+                }
+            }
+            reached[start] = true;
+            parents[start] = CsrWordGraph.NONE;
+            queue[0] = start;
+            int size = 1;
+            int levelStart = 0;
+            int depth = 0;
+            for (; depth < maxSteps && levelStart < size && remaining > 0; depth++) {
+                int levelEnd = size;
+                for (int i = levelStart; i < levelEnd; i++) {
+                    int word = queue[i];
+                    for (int edge = graph.getFirstEdge(word); edge < graph.getFirstEdge(word + 1);
+                         edge++) {
+                        int neighbor = graph.getTarget(edge);
+                        if (!reached[neighbor]) {
+                            reached[neighbor] = true;
+                            parents[neighbor] = word;
+                            queue[size++] = neighbor;
+                            if (wanted[neighbor]) {
+                                remaining--;
+                            }
+                        }
+                    }
+                }
+                levelStart = levelEnd;
+            }
+            for (int query : group) {
+                wanted[graph.getId(queries.get(query).end)] = false;
+            }
+            long[] entries = new long[size];
+            for (int i = 0; i < size; i++) {
+                int word = queue[i];
+                entries[i] = ((long) word << 32) | (parents[word] & 0xffffffffL);
+                reached[word] = false;
+            }
+            Arrays.sort(entries);
+            // Stopping early leaves the tree short of maxSteps, unless the search ran dry.
+            return new Tree(entries, remaining > 0 || depth == maxSteps || levelStart == size);
+        }
+    }
+
+    public static class Builder {
+        private int threadCount = 1;
+        private int cacheSize = 64;
+        private int maxSteps = 6;
+        private int minTreeTargets = 50;
+
+        public Builder setThreadCount(int threadCount) {
+            if (threadCount < 1) {
+                throw new IllegalArgumentException("threadCount must be positive: " + threadCount);
+            }
+            this.threadCount = threadCount;
+            return this;
+        }
+
+        /**
+         * Sets how many search trees to keep for later batches.
+         */
+        public Builder setCacheSize(int cacheSize) {
+            if (cacheSize < 0) {
+                throw new IllegalArgumentException("cacheSize must not be negative: " + cacheSize);
+            }
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        /**
+         * Sets the most steps (pairs of neighboring words) a ladder may have.
+         */
+        public Builder setMaxSteps(int maxSteps) {
+            if (maxSteps < 1) {
+                throw new IllegalArgumentException("maxSteps must be positive: " + maxSteps);
+            }
+            this.maxSteps = maxSteps;
+            return this;
+        }
+
+        /**
+         * Sets the fewest queries from a start word for which a search tree is built. Fewer
+         * queries are answered by bidirectional searches.
+         */
+        public Builder setMinTreeTargets(int minTreeTargets) {
+            if (minTreeTargets < 1) {
+                throw new IllegalArgumentException("minTreeTargets must be positive: "
+                        + minTreeTargets);
+            }
+            this.minTreeTargets = minTreeTargets;
+            return this;
+        }
+
+        public BatchLadderSolver build(CsrWordGraph graph) {
+            return new BatchLadderSolver(graph, this);
+        }
+    }
+}
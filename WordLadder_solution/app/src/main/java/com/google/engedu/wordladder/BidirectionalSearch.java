@@ -0,0 +1,128 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.wordladder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Finds shortest word ladders with a breadth first search that runs from both ends at once.
+ *
+ * Each side keeps a map from every word it has reached to the word it was reached from, so a
+ * word is expanded at most once per side and no partial paths are copied. The ladder is rebuilt
+ * from those parent pointers once the two searches meet. A search from one end has to visit
+ * about b^d words for a ladder of d steps with b neighbors per word, while two searches that meet
+ * in the middle visit about 2 b^(d/2).
+ */
+public class BidirectionalSearch {
+    private final WordGraph graph;
+
+    public BidirectionalSearch(WordGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Finds a shortest ladder from start to end.
+     * @param maxSteps The most steps (pairs of neighboring words) the ladder may have.
+     * @return The words of the ladder, starting with start and ending with end, or null if start
+     *     and end are not different words of the graph or there is no ladder of at most maxSteps.
+     */
+    public List<String> findPath(String start, String end, int maxSteps) {
+        if (start == null || end == null || start.equals(end)
+                || !graph.isWord(start) || !graph.isWord(end)) {
+            return null;
+        }
+        HashMap<String, String> startParents = new HashMap<>();
+        HashMap<String, String> endParents = new HashMap<>();
+        startParents.put(start, null);
+        endParents.put(end, null);
+        List<String> startFrontier = Collections.singletonList(start);
+        List<String> endFrontier = Collections.singletonList(end);
+        int startDepth = 0;
+        int endDepth = 0;
+        // Any meeting found from here on makes a ladder of at least startDepth + endDepth + 1 steps.
+        while (startDepth + endDepth < maxSteps
+                && !startFrontier.isEmpty() && !endFrontier.isEmpty()) {
+            // Expanding the smaller frontier keeps the two searches balanced.
+            boolean fromStart = startFrontier.size() <= endFrontier.size();
+            List<String> frontier = fromStart ? startFrontier : endFrontier;
+            HashMap<String, String> parents = fromStart ? startParents : endParents;
+            HashMap<String, String> otherParents = fromStart ? endParents : startParents;
+
+            List<String> next = new ArrayList<>();
+            String bestMeeting = null;
+            String bestParent = null;
+            int bestOtherDepth = Integer.MAX_VALUE;
+            for (String word : frontier) {
+                List<String> neighbors = graph.getNeighbors(word);
+                for (int i = 0; i < neighbors.size(); i++) {
+                    String neighbor = neighbors.get(i);
+                    if (parents.containsKey(neighbor)) {
+                        continue;
+                    }
+                    if (otherParents.containsKey(neighbor)) {
+                        // The first meeting is not necessarily on a shortest ladder, but the
+                        // closest one to the other end within this level is.
+                        int otherDepth = getDepth(otherParents, neighbor);
+                        if (otherDepth < bestOtherDepth) {
+                            bestMeeting = neighbor;
+                            bestParent = word;
+                            bestOtherDepth = otherDepth;
+                        }
+                        continue;
+                    }
+                    parents.put(neighbor, word);
+                    next.add(neighbor);
+                }
+            }
+            if (bestMeeting != null) {
+                parents.put(bestMeeting, bestParent);
+                return buildPath(bestMeeting, startParents, endParents);
+            }
+            if (fromStart) {
+                startFrontier = next;
+                startDepth++;
+            } else {
+                endFrontier = next;
+                endDepth++;
+            }
+        }
+        return null;
+    }
+
+    private static int getDepth(HashMap<String, String> parents, String word) {
+        int depth = 0;
+        for (String parent = parents.get(word); parent != null; parent = parents.get(parent)) {
+            depth++;
+        }
+        return depth;
+    }
+
+    private static List<String> buildPath(String meeting, HashMap<String, String> startParents,
+                                          HashMap<String, String> endParents) {
+        ArrayList<String> path = new ArrayList<>();
+        for (String word = meeting; word != null; word = startParents.get(word)) {
+            path.add(word);
+        }
+        Collections.reverse(path);
+        for (String word = endParents.get(meeting); word != null; word = endParents.get(word)) {
+            path.add(word);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,453 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.wordladder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A read-only WordGraph that numbers its words and stores the edges in compressed sparse row
+ * form: the neighbors of word i are targets[offsets[i]] up to targets[offsets[i + 1]]. The whole
+ * graph is two int arrays besides the words, and walking it touches no objects.
+ *
+ * findPath runs a bidirectional breadth first search, like BidirectionalSearch, on word IDs.
+ * Its parent pointers and queues are int arrays that are allocated once and reused, and a search
+ * only allocates the ladder it returns. findPathAStar is an alternative that searches from the
+ * start only, guided by the letters that differ from the end. The WordGraph methods are adapters
+ * for code that works with Strings. This class is not thread-safe, but the graph itself never
+ * changes, so threads that each have a Search of their own can search it in parallel.
+ */
+public class CsrWordGraph implements WordGraph {
+    public static final int NONE = -1;
+
+    private final String[] words;
+    private final HashMap<String, Integer> ids;
+    private final int[] offsets;
+    private final int[] targets;
+
+    private Search search;
+
+    public CsrWordGraph(Collection<String> words) {
+        // The edges are found through the wildcard buckets, which are dropped once built.
+        WildcardWordGraph buckets = new WildcardWordGraph(words);
+        ids = new HashMap<>();
+        ArrayList<String> uniqueWords = new ArrayList<>();
+        for (String word : words) {
+            if (!ids.containsKey(word)) {
+                ids.put(word, uniqueWords.size());
+                uniqueWords.add(word);
+            }
+        }
+        this.words = uniqueWords.toArray(new String[uniqueWords.size()]);
+        offsets = new int[this.words.length + 1];
+        int[] edges = new int[this.words.length];
+        int edgeCount = 0;
+        for (int id = 0; id < this.words.length; id++) {
+            offsets[id] = edgeCount;
+            for (String neighbor : buckets.getNeighbors(this.words[id])) {
+                if (edgeCount == edges.length) {
+                    edges = Arrays.copyOf(edges, 2 * edges.length);
+                }
+                edges[edgeCount++] = ids.get(neighbor);
+            }
+        }
+        offsets[this.words.length] = edgeCount;
+        targets = Arrays.copyOf(edges, edgeCount);
+    }
+
+    public int getWordCount() {
+        return words.length;
+    }
+
+    public int getEdgeCount() {
+        return targets.length / 2;
+    }
+
+    /**
+     * @return The ID of a word, or NONE if it is not in the graph.
+     */
+    public int getId(String word) {
+        Integer id = ids.get(word);
+        return id == null ? NONE : id;
+    }
+
+    public String getWord(int id) {
+        return words[id];
+    }
+
+    /**
+     * The neighbors of word id are getTarget(i) for i from getFirstEdge(id) up to
+     * getFirstEdge(id + 1).
+     */
+    public int getFirstEdge(int id) {
+        return offsets[id];
+    }
+
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    @Override
+    public ArrayList<String> getNeighbors(String word) {
+        int id = getId(word);
+        if (id == NONE) {
+            return null;
+        }
+        ArrayList<String> neighbors = new ArrayList<>(offsets[id + 1] - offsets[id]);
+        for (int edge = offsets[id]; edge < offsets[id + 1]; edge++) {
+            neighbors.add(words[targets[edge]]);
+        }
+        return neighbors;
+    }
+
+    @Override
+    public boolean isWord(String word) {
+        return ids.containsKey(word);
+    }
+
+    /**
+     * Finds a shortest ladder from start to end.
+     * @param maxSteps The most steps (pairs of neighboring words) the ladder may have.
+     * @return The words of the ladder, starting with start and ending with end, or null if start
+     *     and end are not different words of the graph or there is no ladder of at most maxSteps.
+     */
+    public List<String> findPath(String start, String end, int maxSteps) {
+        if (search == null) {
+            search = new Search();
+        }
+        return search.findPath(start, end, maxSteps);
+    }
+
+    /**
+     * Like findPath, but runs an A* search, which finds a ladder of the same length. Which is
+     * faster depends on the words: A* expands fewer words when the letters that differ between
+     * start and end can mostly be changed one by one.
+     */
+    public List<String> findPathAStar(String start, String end, int maxSteps) {
+        if (search == null) {
+            search = new Search();
+        }
+        return search.findPathAStar(start, end, maxSteps);
+    }
+
+    /**
+     * @return The number of words whose neighbors the last findPath or findPathAStar call
+     *     looked at.
+     */
+    public int getLastExpandedCount() {
+        return search == null ? 0 : search.expandedCount;
+    }
+
+    /**
+     * Creates the state for searches of this graph on another thread.
+     */
+    Search newSearch() {
+        return new Search();
+    }
+
+    /**
+     * The state of the searches from the start and the end, indexed by word ID. A Search may
+     * only be used by one thread at a time.
+     */
+    class Search {
+        // A word has been reached by a search if its mark equals the search's generation.
+        private int[] startMarks;
+        private int[] endMarks;
+        private int[] startParents;
+        private int[] endParents;
+        private int[] startQueue;
+        private int[] endQueue;
+        private int generation;
+        // The steps from the start to each word reached by aStar, and aStar's binary heap.
+        private int[] costs;
+        private long[] heap;
+        private int expandedCount;
+
+        /**
+         * Like CsrWordGraph.findPath.
+         */
+        List<String> findPath(String start, String end, int maxSteps) {
+            expandedCount = 0;
+            int startId = start == null ? NONE : getId(start);
+            int endId = end == null ? NONE : getId(end);
+            if (startId == NONE || endId == NONE || startId == endId) {
+                return null;
+            }
+            int meeting = search(startId, endId, maxSteps);
+            if (meeting == NONE) {
+                return null;
+            }
+            ArrayList<String> path = new ArrayList<>();
+            for (int id = meeting; id != NONE; id = startParents[id]) {
+                path.add(words[id]);
+            }
+            // The start half was added from the meeting back to the start.
+            for (int i = 0, j = path.size() - 1; i < j; i++, j--) {
+                String swapped = path.get(i);
+                path.set(i, path.get(j));
+                path.set(j, swapped);
+            }
+            for (int id = endParents[meeting]; id != NONE; id = endParents[id]) {
+                path.add(words[id]);
+            }
+            return path;
+        }
+
+        private void startSearch() {
+            if (startMarks == null) {
+                startMarks = new int[words.length];
+                endMarks = new int[words.length];
+                startParents = new int[words.length];
+                endParents = new int[words.length];
+                startQueue = new int[words.length];
+                endQueue = new int[words.length];
+            }
+            generation++;
+            if (generation == 0) {
+                // The generations wrapped around, so old marks could look current.
+                Arrays.fill(startMarks, 0);
+                Arrays.fill(endMarks, 0);
+                generation = 1;
+            }
+        }
+
+        /**
+         * Runs the search, leaving the ladder in startParents and endParents.
+         * @return The word where the two halves of a shortest ladder meet, or NONE.
+         */
+        private int search(int startId, int endId, int maxSteps) {
+            startSearch();
+            startMarks[startId] = generation;
+            startParents[startId] = NONE;
+            startQueue[0] = startId;
+            endMarks[endId] = generation;
+            endParents[endId] = NONE;
+            endQueue[0] = endId;
+            // Each queue holds the words in the order they were reached, so a level of the search
+            // is the range from levelStart up to the queue's size.
+            int startLevelStart = 0;
+            int startSize = 1;
+            int endLevelStart = 0;
+            int endSize = 1;
+            int startDepth = 0;
+            int endDepth = 0;
+            while (startDepth + endDepth < maxSteps
+                    && startLevelStart < startSize && endLevelStart < endSize) {
+                boolean fromStart = startSize - startLevelStart <= endSize - endLevelStart;
+                int[] marks = fromStart ? startMarks : endMarks;
+                int[] parents = fromStart ? startParents : endParents;
+                int[] queue = fromStart ? startQueue : endQueue;
+                int[] otherMarks = fromStart ? endMarks : startMarks;
+                int[] otherParents = fromStart ? endParents : startParents;
+                int levelStart = fromStart ? startLevelStart : endLevelStart;
+                int size = fromStart ? startSize : endSize;
+
+                int bestMeeting = NONE;
+                int bestParent = NONE;
+                int bestOtherDepth = Integer.MAX_VALUE;
+                int levelEnd = size;
+                for (int i = levelStart; i < levelEnd; i++) {
+                    int word = queue[i];
+                    expandedCount++;
+                    for (int edge = offsets[word]; edge < offsets[word + 1]; edge++) {
+                        int neighbor = targets[edge];
+                        if (marks[neighbor] == generation) {
+                            continue;
+                        }
+                        if (otherMarks[neighbor] == generation) {
+                            // As in BidirectionalSearch, the meeting closest to the other
+                            // end within this level is on a shortest ladder.
+                            int otherDepth = getDepth(otherParents, neighbor);
+                            if (otherDepth < bestOtherDepth) {
+                                bestMeeting = neighbor;
+                                bestParent = word;
+                                bestOtherDepth = otherDepth;
+                            }
+                            continue;
+                        }
+                        marks[neighbor] = generation;
+                        parents[neighbor] = word;
+                        queue[size++] = neighbor;
+                    }
+                }
+                if (bestMeeting != NONE) {
+                    parents[bestMeeting] = bestParent;
+                    return bestMeeting;
+                }
+                if (fromStart) {
+                    startLevelStart = levelEnd;
+                    startSize = size;
+                    startDepth++;
+                } else {
+                    endLevelStart = levelEnd;
+                    endSize = size;
+                    endDepth++;
+                }
+            }
+            return NONE;
+        }
+
+        /**
+         * Like CsrWordGraph.findPathAStar.
+         */
+        List<String> findPathAStar(String start, String end, int maxSteps) {
+            expandedCount = 0;
+            int startId = start == null ? NONE : getId(start);
+            int endId = end == null ? NONE : getId(end);
+            if (startId == NONE || endId == NONE || startId == endId
+                    || start.length() != end.length() || !aStar(startId, endId, maxSteps)) {
+                return null;
+            }
+            ArrayList<String> path = new ArrayList<>();
+            for (int id = endId; id != NONE; id = startParents[id]) {
+                path.add(words[id]);
+            }
+            Collections.reverse(path);
+            return path;
+        }
+
+        /**
+         * Runs an A* search from the start, which expands words in order of the steps taken to
+         * them plus the number of letters that differ from the end. A step changes one letter,
+         * so that number never overestimates the steps left and falls by at most one per step:
+         * the first time a word is expanded, no ladder to it is shorter. Words that can't reach
+         * the end within maxSteps by that estimate are never queued.
+         *
+         * startMarks and costs hold the words reached and their fewest steps so far, startParents
+         * the ladder, and endMarks the words expanded. The heap holds keys made by getKey, and a
+         * word may be queued again when a shorter ladder to it is found, so stale keys of
+         * expanded words are skipped.
+         * @return Whether the end was reached, leaving the ladder in startParents.
+         */
+        private boolean aStar(int startId, int endId, int maxSteps) {
+            startSearch();
+            if (costs == null) {
+                costs = new int[words.length];
+                heap = new long[64];
+            }
+            String end = words[endId];
+            int estimate = getLetterDistance(words[startId], end);
+            if (estimate > maxSteps) {
+                return false;
+            }
+            startMarks[startId] = generation;
+            startParents[startId] = NONE;
+            costs[startId] = 0;
+            heap[0] = getKey(estimate, estimate, startId);
+            int heapSize = 1;
+            while (heapSize > 0) {
+                int word = (int) heap[0];
+                heapSize = removeMin(heapSize);
+                if (endMarks[word] == generation) {
+                    continue;
+                }
+                if (word == endId) {
+                    return true;
+                }
+                endMarks[word] = generation;
+                expandedCount++;
+                int cost = costs[word] + 1;
+                for (int edge = offsets[word]; edge < offsets[word + 1]; edge++) {
+                    int neighbor = targets[edge];
+                    if (startMarks[neighbor] == generation && costs[neighbor] <= cost) {
+                        continue;
+                    }
+                    int remaining = getLetterDistance(words[neighbor], end);
+                    if (cost + remaining > maxSteps) {
+                        continue;
+                    }
+                    startMarks[neighbor] = generation;
+                    startParents[neighbor] = word;
+                    costs[neighbor] = cost;
+                    heapSize = add(heapSize, getKey(cost + remaining, remaining, neighbor));
+                }
+            }
+            return false;
+        }
+
+        private int add(int heapSize, long key) {
+            if (heapSize == heap.length) {
+                heap = Arrays.copyOf(heap, 2 * heap.length);
+            }
+            int i = heapSize;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= key) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = key;
+            return heapSize + 1;
+        }
+
+        private int removeMin(int heapSize) {
+            int size = heapSize - 1;
+            long key = heap[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (key <= heap[child]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = key;
+            return size;
+        }
+    }
+
+    private static int getDepth(int[] parents, int word) {
+        int depth = 0;
+        for (int parent = parents[word]; parent != NONE; parent = parents[parent]) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * Orders the heap of aStar by estimated ladder length, then by estimated steps left, so
+     * that of equally promising words the ones closer to the end are expanded first.
+     */
+    private static long getKey(int estimate, int remaining, int word) {
+        return ((long) estimate << 40) | ((long) Math.min(remaining, 0xff) << 32) | word;
+    }
+
+    /**
+     * @return The number of positions at which two words of the same length differ.
+     */
+    private static int getLetterDistance(String a, String b) {
+        int distance = 0;
+        for (int i = 0; i < a.length(); i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                distance++;
+            }
+        }
+        return distance;
+    }
+}
@@ -0,0 +1,262 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.wordladder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A WordGraph that stores no edges at all. The words of each length are packed back to back into
+ * one char array, without any per-word objects, and the neighbors of a word are found on the fly
+ * by trying every other letter in each position and looking the result up.
+ *
+ * Lookups go through an open addressing hash table of indexes into the packed words, one per
+ * length. The hash of a word is the sum of a well-mixed hash of each letter and its position, so
+ * the hash of a word with one letter substituted takes two letter hashes to compute, without
+ * hashing the whole candidate. This class is not thread-safe.
+ */
+public class ImplicitWordGraph implements MutableWordGraph {
+    private static final char[] NO_CHARS = new char[0];
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    // words[length] holds the words of that length in the order they were added, length chars
+    // each.
+    private char[][] words = new char[0][];
+    private int[] counts = new int[0];
+    // slots[length] holds indexes into words[length], or NONE.
+    private int[][] slots = new int[0][];
+    // Every letter that appears in any word, in order.
+    private char[] alphabet = NO_CHARS;
+    private final ArrayList<String> neighbors = new ArrayList<>();
+    private char[] candidate = NO_CHARS;
+
+    public ImplicitWordGraph() {
+    }
+
+    /**
+     * Builds the graph of all the given words at once, sizing the tables up front.
+     */
+    public ImplicitWordGraph(Collection<String> words) {
+        int[] lengthCounts = new int[0];
+        for (String word : words) {
+            if (word.length() >= lengthCounts.length) {
+                lengthCounts = Arrays.copyOf(lengthCounts, word.length() + 1);
+            }
+            lengthCounts[word.length()]++;
+        }
+        ensureLength(lengthCounts.length - 1);
+        for (int length = 1; length < lengthCounts.length; length++) {
+            this.words[length] = new char[lengthCounts[length] * length];
+            slots[length] = newEmptySlots(getCapacity(lengthCounts[length]));
+        }
+        for (String word : words) {
+            addWord(word);
+        }
+    }
+
+    private static int[] newEmptySlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, NONE);
+        return slots;
+    }
+
+    /**
+     * Returns a power of two with room for count words at a load factor of at most one half.
+     */
+    private static int getCapacity(int count) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < 2 * count) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    private void ensureLength(int length) {
+        if (length < words.length) {
+            return;
+        }
+        int oldLength = words.length;
+        words = Arrays.copyOf(words, length + 1);
+        counts = Arrays.copyOf(counts, length + 1);
+        slots = Arrays.copyOf(slots, length + 1);
+        for (int i = oldLength; i <= length; i++) {
+            words[i] = NO_CHARS;
+            slots[i] = newEmptySlots(INITIAL_CAPACITY);
+        }
+        candidate = new char[length];
+    }
+
+    /**
+     * Hashes a letter at a position. This is the finalizer of the SplitMix64 generator, which
+     * spreads nearby values across all 64 bits so that sums of them rarely collide.
+     */
+    private static long getLetterHash(char c, int position) {
+        long z = (((long) position << 16) + c + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long getWordHash(char[] word, int length) {
+        long hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash += getLetterHash(word[i], i);
+        }
+        return hash;
+    }
+
+    private static int getSlot(long hash, int capacity) {
+        return (int) (hash ^ (hash >>> 32)) & (capacity - 1);
+    }
+
+    /**
+     * Finds the first length chars of candidate, whose hash is given.
+     * @return The slot holding the word, or the empty slot where it would go.
+     */
+    private int findSlot(int length, long hash) {
+        int[] table = slots[length];
+        char[] packed = words[length];
+        int mask = table.length - 1;
+        int slot = getSlot(hash, table.length);
+        while (table[slot] != NONE && !matches(packed, table[slot] * length, length)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private boolean matches(char[] packed, int start, int length) {
+        for (int i = 0; i < length; i++) {
+            if (packed[start + i] != candidate[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean contains(int length, long hash) {
+        return slots[length][findSlot(length, hash)] != NONE;
+    }
+
+    /**
+     * Gets the neighbors of a word. The returned list is reused by the next call, so copy it if
+     * it has to outlive that.
+     * @return The list of neighboring words, or null if word is not in the dict.
+     */
+    @Override
+    public ArrayList<String> getNeighbors(String word) {
+        if (!isWord(word)) {
+            return null;
+        }
+        neighbors.clear();
+        int length = word.length();
+        // isWord left the word in candidate.
+        long wordHash = getWordHash(candidate, length);
+        for (int i = 0; i < length; i++) {
+            char original = candidate[i];
+            long otherLettersHash = wordHash - getLetterHash(original, i);
+            for (char c : alphabet) {
+                if (c == original) {
+                    continue;
+                }
+                candidate[i] = c;
+                if (contains(length, otherLettersHash + getLetterHash(c, i))) {
+                    neighbors.add(new String(candidate, 0, length));
+                }
+            }
+            candidate[i] = original;
+        }
+        return neighbors;
+    }
+
+    @Override
+    public void addWord(String word) {
+        int length = word.length();
+        if (length == 0) {
+            return;
+        }
+        ensureLength(length);
+        word.getChars(0, length, candidate, 0);
+        int slot = findSlot(length, getWordHash(candidate, length));
+        if (slots[length][slot] != NONE) {
+            return;
+        }
+        int index = counts[length]++;
+        if (words[length].length < counts[length] * length) {
+            words[length] = Arrays.copyOf(words[length],
+                    Math.max(2 * words[length].length, counts[length] * length));
+        }
+        word.getChars(0, length, words[length], index * length);
+        slots[length][slot] = index;
+        if (2 * counts[length] > slots[length].length) {
+            rehash(length, 2 * slots[length].length);
+        }
+        for (int i = 0; i < length; i++) {
+            addLetter(word.charAt(i));
+        }
+    }
+
+    private void rehash(int length, int capacity) {
+        slots[length] = newEmptySlots(capacity);
+        int mask = capacity - 1;
+        for (int index = 0; index < counts[length]; index++) {
+            long hash = 0;
+            for (int i = 0; i < length; i++) {
+                hash += getLetterHash(words[length][index * length + i], i);
+            }
+            int slot = getSlot(hash, capacity);
+            while (slots[length][slot] != NONE) {
+                slot = (slot + 1) & mask;
+            }
+            slots[length][slot] = index;
+        }
+    }
+
+    private void addLetter(char c) {
+        int position = Arrays.binarySearch(alphabet, c);
+        if (position < 0) {
+            position = -position - 1;
+            char[] letters = new char[alphabet.length + 1];
+            System.arraycopy(alphabet, 0, letters, 0, position);
+            letters[position] = c;
+            System.arraycopy(alphabet, position, letters, position + 1,
+                    alphabet.length - position);
+            alphabet = letters;
+        }
+    }
+
+    @Override
+    public boolean isWord(String word) {
+        int length = word.length();
+        if (length == 0 || length >= words.length) {
+            return false;
+        }
+        word.getChars(0, length, candidate, 0);
+        return contains(length, getWordHash(candidate, length));
+    }
+
+    /**
+     * The memory taken by the packed words and their hash tables.
+     */
+    public int getSizeInBytes() {
+        int size = 2 * alphabet.length;
+        for (int length = 0; length < words.length; length++) {
+            size += 2 * words[length].length + 4 * slots[length].length;
+        }
+        return size;
+    }
+}
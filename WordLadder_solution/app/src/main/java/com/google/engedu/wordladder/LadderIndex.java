@@ -0,0 +1,366 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.wordladder;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Precomputed ladder distances over a CsrWordGraph, for generating puzzles of a given length and
+ * for rejecting pairs of words that no ladder can connect.
+ *
+ * The connected components of the graph are labeled once. Then a breadth first search runs from
+ * each of a sample of source words, and every word it reaches within maxDistance steps is
+ * recorded as a (source, word) pair, bucketed by distance. Picking a random pair at a given
+ * distance is then a single array lookup. The pairs can be written out and read back, so that
+ * the searches can be run ahead of time.
+ */
+public class LadderIndex {
+    static final int MAGIC = 0x4c414452; // "LADR"
+    static final int VERSION = 1;
+
+    private final CsrWordGraph graph;
+    private final int[] components;
+    private final int componentCount;
+    // pairs[d] holds the source and target IDs of each pair at distance d, interleaved.
+    private final int[][] pairs;
+
+    private LadderIndex(CsrWordGraph graph, int[] components, int componentCount,
+                        int[][] pairs) {
+        this.graph = graph;
+        this.components = components;
+        this.componentCount = componentCount;
+        this.pairs = pairs;
+    }
+
+    public int getMaxDistance() {
+        return pairs.length - 1;
+    }
+
+    public int getPairCount(int distance) {
+        return distance < 1 || distance >= pairs.length ? 0 : pairs[distance].length / 2;
+    }
+
+    /**
+     * Picks a random pair of words whose shortest ladder has exactly distance steps.
+     * @return The two words, in random order, or null if there is no such pair in the index.
+     */
+    public String[] getRandomPair(int distance, Random random) {
+        int count = getPairCount(distance);
+        if (count == 0) {
+            return null;
+        }
+        int pair = 2 * random.nextInt(count);
+        String source = graph.getWord(pairs[distance][pair]);
+        String target = graph.getWord(pairs[distance][pair + 1]);
+        return random.nextBoolean() ? new String[] {source, target}
+                : new String[] {target, source};
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Checks whether some ladder, of any length, connects two words of the graph.
+     */
+    public boolean areConnected(String start, String end) {
+        int startId = graph.getId(start);
+        int endId = graph.getId(end);
+        return startId != CsrWordGraph.NONE && endId != CsrWordGraph.NONE
+                && components[startId] == components[endId];
+    }
+
+    /**
+     * Writes the pairs in a compact binary form that read() can load for the same graph:
+     * <pre>
+     *   int magic, int version, int wordCount, int maxDistance
+     *   for each distance from 1 to maxDistance: int pairCount, then the (source, target) IDs
+     * </pre>
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(graph.getWordCount());
+        data.writeInt(getMaxDistance());
+        for (int distance = 1; distance < pairs.length; distance++) {
+            data.writeInt(getPairCount(distance));
+            for (int id : pairs[distance]) {
+                data.writeInt(id);
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads pairs written by write() for the same graph. The components aren't stored, since
+     * labeling them again is a single pass over the graph.
+     */
+    public static LadderIndex read(CsrWordGraph graph, InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a ladder index");
+        }
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported ladder index version " + version);
+        }
+        if (data.readInt() != graph.getWordCount()) {
+            throw new IOException("Ladder index was built for a different word graph");
+        }
+        int maxDistance = data.readInt();
+        if (maxDistance < 0) {
+            throw new IOException("Corrupt ladder index");
+        }
+        int[][] pairs = new int[maxDistance + 1][];
+        pairs[0] = new int[0];
+        for (int distance = 1; distance <= maxDistance; distance++) {
+            int pairCount = data.readInt();
+            if (pairCount < 0 || pairCount > Integer.MAX_VALUE / 2) {
+                throw new IOException("Corrupt ladder index");
+            }
+            pairs[distance] = new int[2 * pairCount];
+            for (int i = 0; i < pairs[distance].length; i++) {
+                int id = data.readInt();
+                if (id < 0 || id >= graph.getWordCount()) {
+                    throw new IOException("Corrupt ladder index");
+                }
+                pairs[distance][i] = id;
+            }
+        }
+        int[] components = new int[graph.getWordCount()];
+        int componentCount = labelComponents(graph, components);
+        return new LadderIndex(graph, components, componentCount, pairs);
+    }
+
+    /**
+     * Labels each word with the number of its connected component.
+     * @return The number of components.
+     */
+    private static int labelComponents(CsrWordGraph graph, int[] components) {
+        Arrays.fill(components, CsrWordGraph.NONE);
+        int[] queue = new int[graph.getWordCount()];
+        int componentCount = 0;
+        for (int root = 0; root < components.length; root++) {
+            if (components[root] != CsrWordGraph.NONE) {
+                continue;
+            }
+            components[root] = componentCount;
+            queue[0] = root;
+            int size = 1;
+            for (int i = 0; i < size; i++) {
+                int word = queue[i];
+                for (int edge = graph.getFirstEdge(word); edge < graph.getFirstEdge(word + 1);
+                     edge++) {
+                    int neighbor = graph.getTarget(edge);
+                    if (components[neighbor] == CsrWordGraph.NONE) {
+                        components[neighbor] = componentCount;
+                        queue[size++] = neighbor;
+                    }
+                }
+            }
+            componentCount++;
+        }
+        return componentCount;
+    }
+
+    /**
+     * Builds a LadderIndex, optionally running the searches from the sampled sources on several
+     * threads. Each thread searches from its own share of the sources, and the results are
+     * merged in source order, so the index is the same for any number of threads.
+     */
+    public static class Builder {
+        private int threadCount = 1;
+        private int sourceCount = 64;
+        private int maxDistance = 6;
+        private Random random = new Random();
+
+        public Builder setThreadCount(int threadCount) {
+            if (threadCount < 1) {
+                throw new IllegalArgumentException("threadCount must be positive: " + threadCount);
+            }
+            this.threadCount = threadCount;
+            return this;
+        }
+
+        /**
+         * Sets how many source words to search from. More sources give more varied pairs, at
+         * the cost of memory for the pairs.
+         */
+        public Builder setSourceCount(int sourceCount) {
+            if (sourceCount < 0) {
+                throw new IllegalArgumentException("sourceCount must not be negative: "
+                        + sourceCount);
+            }
+            this.sourceCount = sourceCount;
+            return this;
+        }
+
+        public Builder setMaxDistance(int maxDistance) {
+            if (maxDistance < 1) {
+                throw new IllegalArgumentException("maxDistance must be positive: " + maxDistance);
+            }
+            this.maxDistance = maxDistance;
+            return this;
+        }
+
+        public Builder setRandom(Random random) {
+            this.random = random;
+            return this;
+        }
+
+        public LadderIndex build(final CsrWordGraph graph) {
+            int[] components = new int[graph.getWordCount()];
+            int componentCount = labelComponents(graph, components);
+            final int[] sources = pickSources(graph);
+
+            List<int[][]> layers = new ArrayList<>();
+            if (threadCount == 1) {
+                layers.addAll(search(graph, sources, 0, sources.length));
+            } else {
+                ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+                try {
+                    List<Future<List<int[][]>>> chunks = new ArrayList<>();
+                    for (int i = 0; i < threadCount; i++) {
+                        final int start = getChunkStart(sources.length, i);
+                        final int end = getChunkStart(sources.length, i + 1);
+                        chunks.add(executor.submit(new Callable<List<int[][]>>() {
+                            @Override
+                            public List<int[][]> call() {
+                                return search(graph, sources, start, end);
+                            }
+                        }));
+                    }
+                    for (int i = 0; i < threadCount; i++) {
+                        layers.addAll(chunks.get(i).get());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while building ladder index", e);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Could not build ladder index",
+                            e.getCause());
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+
+            int[][] pairs = new int[maxDistance + 1][];
+            pairs[0] = new int[0];
+            for (int distance = 1; distance <= maxDistance; distance++) {
+                int pairCount = 0;
+                for (int i = 0; i < sources.length; i++) {
+                    pairCount += layers.get(i)[distance].length;
+                }
+                pairs[distance] = new int[2 * pairCount];
+                int pair = 0;
+                for (int i = 0; i < sources.length; i++) {
+                    for (int target : layers.get(i)[distance]) {
+                        pairs[distance][pair++] = sources[i];
+                        pairs[distance][pair++] = target;
+                    }
+                }
+            }
+            return new LadderIndex(graph, components, componentCount, pairs);
+        }
+
+        /**
+         * Picks up to sourceCount different words that have at least one neighbor.
+         */
+        private int[] pickSources(CsrWordGraph graph) {
+            int[] candidates = new int[graph.getWordCount()];
+            int candidateCount = 0;
+            for (int id = 0; id < graph.getWordCount(); id++) {
+                if (graph.getFirstEdge(id) < graph.getFirstEdge(id + 1)) {
+                    candidates[candidateCount++] = id;
+                }
+            }
+            // A partial Fisher-Yates shuffle.
+            int count = Math.min(sourceCount, candidateCount);
+            for (int i = 0; i < count; i++) {
+                int j = i + random.nextInt(candidateCount - i);
+                int swapped = candidates[i];
+                candidates[i] = candidates[j];
+                candidates[j] = swapped;
+            }
+            return Arrays.copyOf(candidates, count);
+        }
+
+        /**
+         * Runs a breadth first search from each of sources[start] up to sources[end].
+         * @return For each source, the IDs of the words at each distance up to maxDistance.
+         */
+        private List<int[][]> search(CsrWordGraph graph, int[] sources, int start, int end) {
+            List<int[][]> layers = new ArrayList<>();
+            int[] distances = new int[graph.getWordCount()];
+            int[] queue = new int[graph.getWordCount()];
+            Arrays.fill(distances, CsrWordGraph.NONE);
+            for (int s = start; s < end; s++) {
+                int[][] sourceLayers = new int[maxDistance + 1][];
+                distances[sources[s]] = 0;
+                queue[0] = sources[s];
+                int size = 1;
+                int levelStart = 0;
+                for (int distance = 0; distance <= maxDistance && levelStart < size; distance++) {
+                    int levelEnd = size;
+                    sourceLayers[distance] = Arrays.copyOfRange(queue, levelStart, levelEnd);
+                    if (distance < maxDistance) {
+                        for (int i = levelStart; i < levelEnd; i++) {
+                            int word = queue[i];
+                            for (int edge = graph.getFirstEdge(word);
+                                 edge < graph.getFirstEdge(word + 1); edge++) {
+                                int neighbor = graph.getTarget(edge);
+                                if (distances[neighbor] == CsrWordGraph.NONE) {
+                                    distances[neighbor] = distance + 1;
+                                    queue[size++] = neighbor;
+                                }
+                            }
+                        }
+                    }
+                    levelStart = levelEnd;
+                }
+                for (int distance = 0; distance <= maxDistance; distance++) {
+                    if (sourceLayers[distance] == null) {
+                        sourceLayers[distance] = new int[0];
+                    }
+                }
+                // Only the words this search reached need resetting for the next one.
+                for (int i = 0; i < size; i++) {
+                    distances[queue[i]] = CsrWordGraph.NONE;
+                }
+                layers.add(sourceLayers);
+            }
+            return layers;
+        }
+
+        private int getChunkStart(int sourceCount, int chunk) {
+            return (int) ((long) sourceCount * chunk / threadCount);
+        }
+    }
+}
@@ -22,15 +22,26 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Queue;
 
 public class PathDictionary {
-    private static final int MAX_WORD_LENGTH = 4;
+    /**
+     * How findPath searches: with a bidirectional breadth first search, or with an A* search
+     * guided by the letters that differ from the end word. Both find ladders of the same length.
+     */
+    public enum SearchMode {
+        BFS,
+        A_STAR
+    }
+
     private static final int MAX_SEARCH_DEPTH = 6;
-    private WordGraph graph = new SimpleWordGraph();
+    private CsrWordGraph graph = new CsrWordGraph(Collections.<String>emptyList());
+    private SearchMode searchMode = SearchMode.BFS;
+    private final SearchStats bfsStats = new SearchStats();
+    private final SearchStats aStarStats = new SearchStats();
+    private BatchLadderSolver batchSolver;
 
     public PathDictionary(InputStream inputStream) throws IOException {
         if (inputStream == null) {
@@ -38,21 +49,20 @@ public class PathDictionary {
         }
         Log.i("Word ladder", "Loading dict");
         BufferedReader in = new BufferedReader(new InputStreamReader(inputStream));
+        List<String> words = new ArrayList<>();
         String line = null;
         while((line = in.readLine()) != null) {
             String word = line.trim();
-            if (word.length() > MAX_WORD_LENGTH) {
-                continue;
+            if (!word.isEmpty()) {
+                words.add(word);
             }
-            graph.addWord(word);
         }
+        graph = new CsrWordGraph(words);
     }
 
     @VisibleForTesting
     public PathDictionary(List<String> dictWords) {
-        for (String word : dictWords) {
-            graph.addWord(word);
-        }
+        graph = new CsrWordGraph(dictWords);
     }
 
     public boolean isWord(String word) {
@@ -60,50 +70,96 @@ public class PathDictionary {
     }
 
     /**
-     * Finds the set of words connecting two words, or returns null if none is possible.
+     * Finds a shortest set of words connecting two words, or returns null if none is possible
+     * within MAX_SEARCH_DEPTH steps.
      * @param start
      * @param end
      * @return
      */
     public List<String> findPath(String start, String end) {
+        return findPath(start, end, MAX_SEARCH_DEPTH);
+    }
+
+    /**
+     * Like findPath(start, end), but allows ladders of up to maxSteps steps.
+     */
+    public List<String> findPath(String start, String end, int maxSteps) {
+        return findPath(start, end, maxSteps, searchMode);
+    }
+
+    /**
+     * Like findPath(start, end, maxSteps), with the given kind of search. The search is
+     * recorded in the stats of its mode.
+     */
+    public List<String> findPath(String start, String end, int maxSteps, SearchMode mode) {
         if (start == null || end == null || start.length() != end.length() || start.equals(end)) {
             return null;
         }
-        // Here we will hold all the paths ending in the nodes we wish to search next.
-        // We could store just a Queue<String> if we only wanted to know if a path exists, but
-        // we need to store the whole List<String> to remember the path as we walk down it.
-        Queue<List<String>> queue = new ArrayDeque<>();
-        List<String> initial = new ArrayList<>();
-        initial.add(start);
-
-        // Breadth first search can be implemented with a "while" loop, which continues to search
-        // until the queue is empty. Initialize the queue with the start string.
-
-        queue.add(initial);
-        while (!queue.isEmpty()) {
-            List<String> current = queue.remove();
-            // The final element in the next list is the most recently added graph point.
-            // Find its neighbors and add them to the list, then enqueue the newly created lists,
-            // to continue the search.
-            List<String> neighbors = graph.getNeighbors(current.get(current.size() - 1));
-            for (String neighbor : neighbors) {
-                if (current.contains(neighbor)) {
-                    // No repeats.
-                    continue;
-                }
-                List<String> next = new ArrayList<>(current);
-                next.add(neighbor);
-                // If the neighbor is equal to the end, we are done! Return early.
-                if (neighbor.equals(end)) {
-                    return next;
-                }
-                if (next.size() > MAX_SEARCH_DEPTH) {
-                    continue;
-                }
-                queue.add(next);
+        long startTime = System.nanoTime();
+        List<String> path;
+        if (mode == SearchMode.A_STAR) {
+            path = graph.findPathAStar(start, end, maxSteps);
+        } else {
+            path = graph.findPath(start, end, maxSteps);
+        }
+        getSearchStats(mode).record(graph.getLastExpandedCount(), System.nanoTime() - startTime);
+        return path;
+    }
+
+    /**
+     * Finds all the shortest ladders between two words, e.g. to accept any of them as the
+     * solution of a puzzle.
+     * @return The ladders, or null where findPath would return null.
+     */
+    public ShortestLadders findShortestLadders(String start, String end) {
+        if (start == null || end == null || start.length() != end.length()) {
+            return null;
+        }
+        return ShortestLadders.find(graph, start, end, MAX_SEARCH_DEPTH);
+    }
+
+    /**
+     * Sets the kind of search findPath uses when none is given.
+     */
+    public void setSearchMode(SearchMode searchMode) {
+        this.searchMode = searchMode;
+    }
+
+    /**
+     * @return The searches of a mode so far, e.g. to log them next to those of the other mode.
+     */
+    public SearchStats getSearchStats(SearchMode mode) {
+        return mode == SearchMode.A_STAR ? aStarStats : bfsStats;
+    }
+
+    /**
+     * Finds a shortest ladder for each pair at once, which is much faster than calling findPath
+     * for each when many pairs share a start word. Search trees are cached between calls.
+     * @return The ladders, in the order of the pairs, with null where findPath would return null.
+     */
+    public List<List<String>> findPaths(List<BatchLadderSolver.Pair> pairs) {
+        BatchLadderSolver solver;
+        synchronized (this) {
+            if (batchSolver == null) {
+                batchSolver = new BatchLadderSolver.Builder()
+                        .setThreadCount(Runtime.getRuntime().availableProcessors())
+                        .setMaxSteps(MAX_SEARCH_DEPTH)
+                        .build(graph);
             }
+            solver = batchSolver;
         }
-        // We didn't find anything.
-        return null;
+        return solver.findPaths(pairs);
+    }
+
+    /**
+     * Precomputes the distances between a sample of words, for generating puzzles. Distances go
+     * up to MAX_SEARCH_DEPTH, so that findPath can solve every puzzle.
+     * @param threadCount The number of threads to run the searches on.
+     */
+    public LadderIndex buildLadderIndex(int threadCount) {
+        return new LadderIndex.Builder()
+                .setThreadCount(threadCount)
+                .setMaxDistance(MAX_SEARCH_DEPTH)
+                .build(graph);
     }
 }
@@ -0,0 +1,62 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.wordladder;
+
+import java.util.Locale;
+
+/**
+ * Adds up how many words a kind of search expanded and how long it took, so that search modes
+ * can be compared on real queries. This class is thread-safe.
+ */
+public class SearchStats {
+    private long searchCount;
+    private long expandedCount;
+    private long elapsedNanos;
+
+    synchronized void record(int expanded, long nanos) {
+        searchCount++;
+        expandedCount += expanded;
+        elapsedNanos += nanos;
+    }
+
+    public synchronized long getSearchCount() {
+        return searchCount;
+    }
+
+    /**
+     * @return The total number of words whose neighbors the searches looked at.
+     */
+    public synchronized long getExpandedCount() {
+        return expandedCount;
+    }
+
+    public synchronized long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public synchronized void reset() {
+        searchCount = 0;
+        expandedCount = 0;
+        elapsedNanos = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        long count = Math.max(searchCount, 1);
+        return String.format(Locale.US, "%d searches, %.1f words expanded and %.1f us each",
+                searchCount, (double) expandedCount / count, elapsedNanos / 1000.0 / count);
+    }
+}
@@ -0,0 +1,255 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.wordladder;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * All the shortest ladders between two words, as the layers of their breadth first search: layer
+ * i holds the words that are i steps from the start on some shortest ladder, and each word lists
+ * the words of the next layer it leads to. Together these form a DAG whose paths from the start
+ * to the end are exactly the shortest ladders, so a ladder can be checked in one lookup per word
+ * rather than compared with a single stored answer, and the ladders can be listed one at a time
+ * without ever holding all of them.
+ *
+ * The words are stored as Strings, not IDs, so a ShortestLadders can be used without its graph,
+ * e.g. after being passed to another Activity.
+ */
+public class ShortestLadders implements Iterable<List<String>>, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // The words of each layer, sorted.
+    private final String[][] layers;
+    // For word j of layer i, the sorted indexes in layer i + 1 of the words it leads to.
+    private final int[][][] next;
+
+    private ShortestLadders(String[][] layers, int[][][] next) {
+        this.layers = layers;
+        this.next = next;
+    }
+
+    /**
+     * Finds the shortest ladders from start to end.
+     * @param maxSteps The most steps (pairs of neighboring words) the ladders may have.
+     * @return The ladders, or null if start and end are not different words of the graph or
+     *     there is no ladder of at most maxSteps.
+     */
+    public static ShortestLadders find(CsrWordGraph graph, String start, String end,
+                                       int maxSteps) {
+        int startId = start == null ? CsrWordGraph.NONE : graph.getId(start);
+        int endId = end == null ? CsrWordGraph.NONE : graph.getId(end);
+        if (startId == CsrWordGraph.NONE || endId == CsrWordGraph.NONE || startId == endId) {
+            return null;
+        }
+        // Search from the start, a level at a time, until the end is reached.
+        int[] distances = new int[graph.getWordCount()];
+        Arrays.fill(distances, CsrWordGraph.NONE);
+        distances[startId] = 0;
+        int[] level = {startId};
+        int steps = 0;
+        while (distances[endId] == CsrWordGraph.NONE) {
+            if (steps == maxSteps || level.length == 0) {
+                return null;
+            }
+            steps++;
+            int[] nextLevel = new int[16];
+            int size = 0;
+            for (int word : level) {
+                for (int edge = graph.getFirstEdge(word); edge < graph.getFirstEdge(word + 1);
+                     edge++) {
+                    int neighbor = graph.getTarget(edge);
+                    if (distances[neighbor] == CsrWordGraph.NONE) {
+                        distances[neighbor] = steps;
+                        if (size == nextLevel.length) {
+                            nextLevel = Arrays.copyOf(nextLevel, 2 * size);
+                        }
+                        nextLevel[size++] = neighbor;
+                    }
+                }
+            }
+            level = Arrays.copyOf(nextLevel, size);
+        }
+
+        // Walk back from the end, keeping only the words one step closer to the start that lead
+        // to a word already kept.
+        int[][] layerIds = new int[steps + 1][];
+        layerIds[steps] = new int[] {endId};
+        for (int i = steps - 1; i >= 0; i--) {
+            int[] layer = new int[16];
+            int size = 0;
+            for (int word : layerIds[i + 1]) {
+                for (int edge = graph.getFirstEdge(word); edge < graph.getFirstEdge(word + 1);
+                     edge++) {
+                    int neighbor = graph.getTarget(edge);
+                    if (distances[neighbor] == i) {
+                        // Clear the distance so that the word is only added once.
+                        distances[neighbor] = CsrWordGraph.NONE;
+                        if (size == layer.length) {
+                            layer = Arrays.copyOf(layer, 2 * size);
+                        }
+                        layer[size++] = neighbor;
+                    }
+                }
+            }
+            layerIds[i] = Arrays.copyOf(layer, size);
+        }
+
+        String[][] layers = new String[steps + 1][];
+        for (int i = 0; i <= steps; i++) {
+            layers[i] = new String[layerIds[i].length];
+            for (int j = 0; j < layerIds[i].length; j++) {
+                layers[i][j] = graph.getWord(layerIds[i][j]);
+            }
+            Arrays.sort(layers[i]);
+        }
+        int[][][] next = new int[steps][][];
+        for (int i = 0; i < steps; i++) {
+            next[i] = new int[layers[i].length][];
+            for (int j = 0; j < layers[i].length; j++) {
+                int word = graph.getId(layers[i][j]);
+                int[] targets = new int[graph.getFirstEdge(word + 1) - graph.getFirstEdge(word)];
+                int size = 0;
+                for (int edge = graph.getFirstEdge(word); edge < graph.getFirstEdge(word + 1);
+                     edge++) {
+                    int target = Arrays.binarySearch(layers[i + 1],
+                            graph.getWord(graph.getTarget(edge)));
+                    if (target >= 0) {
+                        targets[size++] = target;
+                    }
+                }
+                next[i][j] = Arrays.copyOf(targets, size);
+                Arrays.sort(next[i][j]);
+            }
+        }
+        return new ShortestLadders(layers, next);
+    }
+
+    /**
+     * @return The number of steps of every shortest ladder.
+     */
+    public int getStepCount() {
+        return layers.length - 1;
+    }
+
+    /**
+     * @return The number of shortest ladders, or Long.MAX_VALUE if there are more.
+     */
+    public long getLadderCount() {
+        // The number of ladders from each word of a layer to the end, from the end back.
+        long[] counts = {1};
+        for (int i = layers.length - 2; i >= 0; i--) {
+            long[] layerCounts = new long[layers[i].length];
+            for (int j = 0; j < layerCounts.length; j++) {
+                for (int target : next[i][j]) {
+                    layerCounts[j] += counts[target];
+                    if (layerCounts[j] < 0) {
+                        layerCounts[j] = Long.MAX_VALUE;
+                    }
+                }
+            }
+            counts = layerCounts;
+        }
+        return counts[0];
+    }
+
+    /**
+     * Checks whether words, from the start word to the end word, are one of the shortest
+     * ladders, with one binary search per word.
+     */
+    public boolean isShortestLadder(List<String> words) {
+        if (words.size() != layers.length) {
+            return false;
+        }
+        int previous = 0;
+        for (int i = 0; i < layers.length; i++) {
+            String word = words.get(i);
+            int index = word == null ? -1 : Arrays.binarySearch(layers[i], word);
+            if (index < 0 || (i > 0 && Arrays.binarySearch(next[i - 1][previous], index) < 0)) {
+                return false;
+            }
+            previous = index;
+        }
+        return true;
+    }
+
+    /**
+     * Lists the shortest ladders in alphabetical order, finding each one as it is asked for.
+     */
+    @Override
+    public Iterator<List<String>> iterator() {
+        return new Iterator<List<String>>() {
+            // The index of each word of the next ladder in its layer, and of that index in the
+            // previous word's next list, or null once all ladders were returned.
+            private int[] words = new int[layers.length];
+            private int[] choices = new int[layers.length];
+
+            {
+                for (int i = 1; i < layers.length; i++) {
+                    words[i] = next[i - 1][words[i - 1]][0];
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return words != null;
+            }
+
+            @Override
+            public List<String> next() {
+                if (words == null) {
+                    throw new NoSuchElementException();
+                }
+                List<String> ladder = new ArrayList<>(layers.length);
+                for (int i = 0; i < layers.length; i++) {
+                    ladder.add(layers[i][words[i]]);
+                }
+                advance();
+                return ladder;
+            }
+
+            /**
+             * Moves to the next ladder like an odometer: the last word that has another choice
+             * takes it, and the words after it restart from their first choices.
+             */
+            private void advance() {
+                int i = layers.length - 1;
+                while (i > 0 && choices[i] + 1 == next[i - 1][words[i - 1]].length) {
+                    i--;
+                }
+                if (i == 0) {
+                    words = null;
+                    return;
+                }
+                choices[i]++;
+                words[i] = next[i - 1][words[i - 1]][choices[i]];
+                for (i++; i < layers.length; i++) {
+                    choices[i] = 0;
+                    words[i] = next[i - 1][words[i - 1]][0];
+                }
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
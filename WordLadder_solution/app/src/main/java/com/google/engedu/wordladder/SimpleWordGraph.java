@@ -25,7 +25,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 
-public class SimpleWordGraph implements WordGraph {
+public class SimpleWordGraph implements MutableWordGraph {
     HashMap<String, ArrayList<String>> graph = new HashMap<>();
 
     public SimpleWordGraph() {
@@ -33,11 +33,15 @@ import java.util.List;
 public class SolverActivity extends AppCompatActivity {
     public static final String TAG = "SolverActivity";
     public static final String EXTRA_WORDS = "wordsExtra";
+    public static final String EXTRA_LADDERS = "laddersExtra";
     private static final String KEY_WORDS = "keyWords";
+    private static final String KEY_LADDERS = "keyLadders";
     private static final String KEY_USER_WORDS = "keyUserWords";
     private static final String KEY_STATUS = "keyStatus";
 
     private String[] mWords;
+    // All the correct solutions, if given. Otherwise only mWords is accepted.
+    private ShortestLadders mLadders;
     private List<EditText> mEditTexts = new ArrayList<>();
 
     @Override
@@ -49,6 +53,7 @@ public class SolverActivity extends AppCompatActivity {
         ArrayList<String> editTextStrings = null;
         if (savedInstanceState == null) {
             mWords = getIntent().getStringArrayExtra(EXTRA_WORDS);
+            mLadders = (ShortestLadders) getIntent().getSerializableExtra(EXTRA_LADDERS);
             if (mWords == null || mWords.length == 0) {
                 // Finish early! There are no words.
                 finish();
@@ -56,6 +61,7 @@ public class SolverActivity extends AppCompatActivity {
         } else {
             editTextStrings = savedInstanceState.getStringArrayList(KEY_USER_WORDS);
             mWords = savedInstanceState.getStringArray(KEY_WORDS);
+            mLadders = (ShortestLadders) savedInstanceState.getSerializable(KEY_LADDERS);
             ((TextView) findViewById(R.id.status)).setText(savedInstanceState.getString(KEY_STATUS));
         }
         LinearLayout editTextHolder = (LinearLayout) findViewById(R.id.input_holder);
@@ -77,6 +83,7 @@ public class SolverActivity extends AppCompatActivity {
     @Override
     protected void onSaveInstanceState(Bundle outState) {
         outState.putStringArray(KEY_WORDS, mWords);
+        outState.putSerializable(KEY_LADDERS, mLadders);
         ArrayList<String> editTextStrings = new ArrayList<>();
         for (EditText editText : mEditTexts) {
             editTextStrings.add(editText.getText().toString());
@@ -87,10 +94,19 @@ public class SolverActivity extends AppCompatActivity {
     }
 
     public void onSolve(View view) {
+        List<String> userWords = new ArrayList<>();
+        userWords.add(mWords[0]);
+        for (EditText editText : mEditTexts) {
+            userWords.add(editText.getText().toString().toLowerCase());
+        }
+        userWords.add(mWords[mWords.length - 1]);
+        // Any shortest ladder is a solution, not just the one in mWords.
+        boolean isSolution = mLadders != null && mLadders.isShortestLadder(userWords);
+
         boolean hasError = false;
         for (int i = 1; i < mWords.length - 1; i++) {
             EditText next = mEditTexts.get(i - 1);
-            if (!TextUtils.equals(next.getText().toString().toLowerCase(), mWords[i])) {
+            if (!isSolution && !TextUtils.equals(userWords.get(i), mWords[i])) {
                 // Not successful! Highlight that this was wrong
                 next.setTextColor(getResources().getColor(android.R.color.holo_red_light));
                 next.setText(mWords[i]);
@@ -0,0 +1,187 @@
+/* Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.engedu.wordladder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+
+/**
+ * A WordGraph that finds neighbors through wildcard patterns: "cat" belongs to the buckets "_at",
+ * "c_t" and "ca_", and its neighbors are the other words in those buckets. Adding a word of
+ * length L only touches its L buckets, so building the graph of N words takes O(N * L) rather
+ * than comparing every pair of words.
+ *
+ * Almost every pattern of a long word matches no other word, so storing the patterns as Strings
+ * would cost far more memory than the words themselves. Instead each (word, wildcard position)
+ * pair is an entry in flat int arrays, and the entries are chained into a hash table by the hash
+ * of their pattern. The hash of a pattern is the sum of a well-mixed hash of each letter and its
+ * position, so all the patterns of a word come from one pass over it. Patterns that collide
+ * share a chain, and are told apart by comparing letters.
+ */
+public class WildcardWordGraph implements MutableWordGraph {
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ArrayList<String> words = new ArrayList<>();
+    private final HashMap<String, Integer> ids = new HashMap<>();
+    // The entries of word i are firstEntry[i] up to firstEntry[i + 1], one per letter.
+    private int[] firstEntry = new int[INITIAL_CAPACITY + 1];
+    private int[] entryWords = new int[INITIAL_CAPACITY];
+    private int[] nextEntries = new int[INITIAL_CAPACITY];
+    private int entryCount;
+    private int[] chains = newEmptyChains(INITIAL_CAPACITY);
+
+    public WildcardWordGraph() {
+    }
+
+    /**
+     * Builds the graph of all the given words at once, sizing the tables up front.
+     */
+    public WildcardWordGraph(Collection<String> words) {
+        int letterCount = 0;
+        for (String word : words) {
+            letterCount += word.length();
+        }
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < letterCount) {
+            capacity *= 2;
+        }
+        firstEntry = new int[words.size() + 1];
+        entryWords = new int[capacity];
+        nextEntries = new int[capacity];
+        chains = newEmptyChains(capacity);
+        for (String word : words) {
+            addWord(word);
+        }
+    }
+
+    private static int[] newEmptyChains(int capacity) {
+        int[] chains = new int[capacity];
+        Arrays.fill(chains, NONE);
+        return chains;
+    }
+
+    /**
+     * Hashes a letter at a position. This is the finalizer of the SplitMix64 generator, which
+     * spreads nearby values across all 64 bits so that sums of them rarely collide.
+     */
+    private static long getLetterHash(char c, int position) {
+        long z = (((long) position << 16) + c + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long getWordHash(String word) {
+        long hash = getLetterHash((char) 0, word.length());
+        for (int i = 0; i < word.length(); i++) {
+            hash += getLetterHash(word.charAt(i), i);
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the chain of the pattern that replaces letter i of a word with a wildcard.
+     */
+    private int getChain(String word, long wordHash, int i) {
+        long hash = wordHash - getLetterHash(word.charAt(i), i);
+        return (int) (hash ^ (hash >>> 32)) & (chains.length - 1);
+    }
+
+    @Override
+    public ArrayList<String> getNeighbors(String word) {
+        if (!ids.containsKey(word)) {
+            return null;
+        }
+        ArrayList<String> neighbors = new ArrayList<>();
+        long wordHash = getWordHash(word);
+        for (int i = 0; i < word.length(); i++) {
+            for (int entry = chains[getChain(word, wordHash, i)]; entry != NONE;
+                 entry = nextEntries[entry]) {
+                String other = words.get(entryWords[entry]);
+                // A word and its neighbor share exactly one pattern, so none is found twice.
+                if (entry - firstEntry[entryWords[entry]] == i && isNeighborAt(word, other, i)) {
+                    neighbors.add(other);
+                }
+            }
+        }
+        return neighbors;
+    }
+
+    /**
+     * Checks whether two words differ in letter i and nowhere else.
+     */
+    private static boolean isNeighborAt(String word, String other, int i) {
+        return word.length() == other.length() && word.charAt(i) != other.charAt(i)
+                && word.regionMatches(0, other, 0, i)
+                && word.regionMatches(i + 1, other, i + 1, word.length() - i - 1);
+    }
+
+    @Override
+    public void addWord(String word) {
+        if (ids.containsKey(word)) {
+            return;
+        }
+        if (entryCount + word.length() > entryWords.length) {
+            int capacity = entryWords.length;
+            while (capacity < entryCount + word.length()) {
+                capacity *= 2;
+            }
+            entryWords = Arrays.copyOf(entryWords, capacity);
+            nextEntries = Arrays.copyOf(nextEntries, capacity);
+            rehash(capacity);
+        }
+        int id = words.size();
+        words.add(word);
+        ids.put(word, id);
+        if (id + 1 == firstEntry.length) {
+            firstEntry = Arrays.copyOf(firstEntry, 2 * firstEntry.length);
+        }
+        firstEntry[id] = entryCount;
+        firstEntry[id + 1] = entryCount + word.length();
+        addEntries(id);
+        entryCount += word.length();
+    }
+
+    private void addEntries(int id) {
+        String word = words.get(id);
+        long wordHash = getWordHash(word);
+        for (int i = 0; i < word.length(); i++) {
+            int entry = firstEntry[id] + i;
+            int chain = getChain(word, wordHash, i);
+            entryWords[entry] = id;
+            nextEntries[entry] = chains[chain];
+            chains[chain] = entry;
+        }
+    }
+
+    /**
+     * Rebuilds the chains with one slot per entry, so that they stay about one entry long.
+     */
+    private void rehash(int capacity) {
+        chains = newEmptyChains(capacity);
+        for (int id = 0; id < words.size(); id++) {
+            addEntries(id);
+        }
+    }
+
+    @Override
+    public boolean isWord(String word) {
+        return ids.containsKey(word);
+    }
+}
@@ -19,7 +19,8 @@ package com.google.engedu.wordladder;
 import java.util.ArrayList;
 
 /**
- * The interface to a WordGraph. This can be implemented in different ways!
+ * The interface to a WordGraph. This can be implemented in different ways! Graphs that words
+ * can be added to one at a time implement MutableWordGraph.
  */
 public interface WordGraph {
     /**
@@ -29,12 +30,6 @@ public interface WordGraph {
      */
     ArrayList<String> getNeighbors(String word);
 
-    /**
-     * Adds a word to the graph.
-     * @param word
-     */
-    void addWord(String word);
-
     /**
      * Checks whether a word is in the graph.
      * @param word
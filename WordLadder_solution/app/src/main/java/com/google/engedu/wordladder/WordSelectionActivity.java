@@ -33,10 +33,16 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 public class WordSelectionActivity extends AppCompatActivity {
+    // The number of steps in the ladders of generated puzzles.
+    private static final int PUZZLE_STEPS = 4;
 
     private PathDictionary dictionary;
+    // Built the first time a puzzle is generated.
+    private LadderIndex ladderIndex;
+    private Random random = new Random();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -57,13 +63,16 @@ public class WordSelectionActivity extends AppCompatActivity {
     public boolean onStart(View view) {
         TextView startWordView = (TextView) findViewById(R.id.startWord);
         TextView endWordView = (TextView) findViewById(R.id.endWord);
-        List<String> words = dictionary.findPath(
+        ShortestLadders ladders = dictionary.findShortestLadders(
                 startWordView.getText().toString().toLowerCase(),
                 endWordView.getText().toString().toLowerCase());
-        if (words != null) {
-            // Launch the new activity.
+        if (ladders != null) {
+            // Launch the new activity. Any of the ladders is accepted as a solution, and the
+            // first one is shown for the words the player gets wrong.
+            List<String> words = ladders.iterator().next();
             Intent intent = new Intent(this, SolverActivity.class);
             intent.putExtra(SolverActivity.EXTRA_WORDS, words.toArray(new String[words.size()]));
+            intent.putExtra(SolverActivity.EXTRA_LADDERS, ladders);
             startActivity(intent);
         } else {
             Log.i("Word ladder", "Word combination is not possible");
@@ -75,6 +84,26 @@ public class WordSelectionActivity extends AppCompatActivity {
         return true;
     }
 
+    /**
+     * Fills in a random pair of words whose shortest ladder has PUZZLE_STEPS steps.
+     */
+    private void newPuzzle() {
+        if (dictionary == null) {
+            return;
+        }
+        if (ladderIndex == null) {
+            ladderIndex = dictionary.buildLadderIndex(Runtime.getRuntime().availableProcessors());
+        }
+        String[] pair = ladderIndex.getRandomPair(PUZZLE_STEPS, random);
+        if (pair == null) {
+            Toast toast = Toast.makeText(this, "Couldn't find a puzzle", Toast.LENGTH_SHORT);
+            toast.show();
+            return;
+        }
+        ((TextView) findViewById(R.id.startWord)).setText(pair[0]);
+        ((TextView) findViewById(R.id.endWord)).setText(pair[1]);
+    }
+
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         // Inflate the menu; this adds items to the action bar if it is present.
@@ -93,6 +122,10 @@ public class WordSelectionActivity extends AppCompatActivity {
         if (id == R.id.action_settings) {
             return true;
         }
+        if (id == R.id.action_new_puzzle) {
+            newPuzzle();
+            return true;
+        }
 
         return super.onOptionsItemSelected(item);
     }
@@ -0,0 +1,121 @@
+/*
+ *  Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.google.engedu.worldladder;
+
+import com.google.engedu.wordladder.BatchLadderSolver;
+import com.google.engedu.wordladder.BatchLadderSolver.Pair;
+import com.google.engedu.wordladder.CsrWordGraph;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BatchLadderSolverTest {
+    private List<String> words = Arrays.asList("cold", "cord", "card", "ward", "warm", "word",
+            "worm", "dog", "dot", "cat");
+
+    private BatchLadderSolver buildSolver(CsrWordGraph graph, int maxSteps, int minTreeTargets,
+                                          int threadCount) {
+        return new BatchLadderSolver.Builder()
+                .setMaxSteps(maxSteps)
+                .setMinTreeTargets(minTreeTargets)
+                .setCacheSize(2)
+                .setThreadCount(threadCount)
+                .build(graph);
+    }
+
+    @Test
+    public void testMatchesFindPath() {
+        CsrWordGraph graph = new CsrWordGraph(words);
+        List<Pair> pairs = new ArrayList<>();
+        Random random = new Random(0);
+        for (int i = 0; i < 200; i++) {
+            pairs.add(new Pair(words.get(random.nextInt(words.size())),
+                    words.get(random.nextInt(words.size()))));
+        }
+        // Trees for every start word, for none, and for some.
+        for (int minTreeTargets : new int[] {1, 1000, 20}) {
+            for (int threadCount = 1; threadCount <= 3; threadCount++) {
+                List<List<String>> paths = buildSolver(graph, 3, minTreeTargets, threadCount)
+                        .findPaths(pairs);
+                assertEquals(pairs.size(), paths.size());
+                for (int i = 0; i < pairs.size(); i++) {
+                    Pair pair = pairs.get(i);
+                    List<String> expected = graph.findPath(pair.start, pair.end, 3);
+                    List<String> path = paths.get(i);
+                    if (expected == null) {
+                        assertNull(path);
+                    } else {
+                        assertEquals(expected.size(), path.size());
+                        assertEquals(pair.start, path.get(0));
+                        assertEquals(pair.end, path.get(path.size() - 1));
+                        for (int j = 1; j < path.size(); j++) {
+                            assertTrue(graph.getNeighbors(path.get(j - 1))
+                                    .contains(path.get(j)));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRespectsMaxSteps() {
+        CsrWordGraph graph = new CsrWordGraph(words);
+        List<Pair> pairs = Arrays.asList(new Pair("cold", "warm"), new Pair("cold", "card"));
+        for (int minTreeTargets : new int[] {1, 1000}) {
+            assertEquals(Arrays.asList(null, Arrays.asList("cold", "cord", "card")),
+                    buildSolver(graph, 2, minTreeTargets, 1).findPaths(pairs));
+            assertEquals(5, buildSolver(graph, 4, minTreeTargets, 1).findPaths(pairs).get(0)
+                    .size());
+        }
+    }
+
+    @Test
+    public void testInvalidPairs() {
+        BatchLadderSolver solver = buildSolver(new CsrWordGraph(words), 6, 1, 2);
+        List<Pair> pairs = Arrays.asList(new Pair("cold", "cold"), new Pair("cold", "xyzw"),
+                new Pair(null, "cold"), new Pair("cold", "dog"), new Pair("dog", "cold"),
+                new Pair("cat", "cot"));
+        List<List<String>> paths = solver.findPaths(pairs);
+        assertEquals(pairs.size(), paths.size());
+        for (List<String> path : paths) {
+            assertNull(path);
+        }
+        assertTrue(solver.findPaths(new ArrayList<Pair>()).isEmpty());
+    }
+
+    @Test
+    public void testCachedTrees() {
+        BatchLadderSolver solver = buildSolver(new CsrWordGraph(words), 6, 2, 1);
+        // This tree stops after one step, once both end words are reached.
+        assertEquals(Arrays.asList(Arrays.asList("cold", "cord"), Arrays.asList("cold", "cord"),
+                Arrays.asList("dot", "dog")), solver.findPaths(Arrays.asList(
+                new Pair("cold", "cord"), new Pair("cold", "cord"), new Pair("dot", "dog"))));
+        // So a word it missed is searched for rather than taken to be out of reach.
+        List<List<String>> paths = solver.findPaths(Arrays.asList(new Pair("cold", "warm"),
+                new Pair("cold", "dog")));
+        assertEquals(5, paths.get(0).size());
+        assertEquals("warm", paths.get(0).get(4));
+        assertNull(paths.get(1));
+    }
+}
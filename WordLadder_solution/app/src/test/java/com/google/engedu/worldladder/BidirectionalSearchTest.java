@@ -0,0 +1,122 @@
+/*
+ *  Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.google.engedu.worldladder;
+
+import com.google.engedu.wordladder.BidirectionalSearch;
+import com.google.engedu.wordladder.SimpleWordGraph;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BidirectionalSearchTest {
+    private String[] wordsArray = {"can", "cap", "cat", "dig", "dot", "dog", "fire", "gain", "gait",
+            "wait", "ware", "wart", "wire"};
+
+    private static SimpleWordGraph newGraph(List<String> words) {
+        SimpleWordGraph graph = new SimpleWordGraph();
+        for (String word : words) {
+            graph.addWord(word);
+        }
+        return graph;
+    }
+
+    @Test
+    public void testFindPath() {
+        List<String> words = new ArrayList<>();
+        for (String word : wordsArray) {
+            words.add(word);
+        }
+        BidirectionalSearch search = new BidirectionalSearch(newGraph(words));
+
+        List<String> result = search.findPath("gain", "fire", 6);
+        assertEquals(7, result.size());
+        assertEquals("gain", result.get(0));
+        assertEquals("fire", result.get(6));
+        // The ladder is too long.
+        assertNull(search.findPath("gain", "fire", 5));
+        // No ladder, and words that aren't in the graph at all.
+        assertNull(search.findPath("cat", "dog", 6));
+        assertNull(search.findPath("cot", "dog", 6));
+        assertNull(search.findPath("cat", "cat", 6));
+    }
+
+    /**
+     * Compares the ladders to the distances found by a plain breadth first search, on random
+     * graphs of three letter words over a small alphabet.
+     */
+    @Test
+    public void testFindsShortestPaths() {
+        Random random = new Random(0);
+        for (int round = 0; round < 20; round++) {
+            List<String> words = new ArrayList<>();
+            for (char a = 'a'; a <= 'd'; a++) {
+                for (char b = 'a'; b <= 'd'; b++) {
+                    for (char c = 'a'; c <= 'd'; c++) {
+                        if (random.nextInt(3) == 0) {
+                            words.add("" + a + b + c);
+                        }
+                    }
+                }
+            }
+            SimpleWordGraph graph = newGraph(words);
+            BidirectionalSearch search = new BidirectionalSearch(graph);
+            for (String start : words) {
+                Map<String, Integer> distances = getDistances(graph, start);
+                for (String end : words) {
+                    List<String> path = search.findPath(start, end, Integer.MAX_VALUE);
+                    Integer distance = distances.get(end);
+                    if (start.equals(end) || distance == null) {
+                        assertNull(path);
+                        continue;
+                    }
+                    assertEquals(distance + 1, path.size());
+                    assertEquals(start, path.get(0));
+                    assertEquals(end, path.get(path.size() - 1));
+                    for (int i = 1; i < path.size(); i++) {
+                        assertTrue(graph.getNeighbors(path.get(i - 1)).contains(path.get(i)));
+                    }
+                }
+            }
+        }
+    }
+
+    private static Map<String, Integer> getDistances(SimpleWordGraph graph, String start) {
+        Map<String, Integer> distances = new HashMap<>();
+        distances.put(start, 0);
+        Queue<String> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            String word = queue.remove();
+            for (String neighbor : graph.getNeighbors(word)) {
+                if (!distances.containsKey(neighbor)) {
+                    distances.put(neighbor, distances.get(word) + 1);
+                    queue.add(neighbor);
+                }
+            }
+        }
+        return distances;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ *  Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.google.engedu.worldladder;
+
+import com.google.engedu.wordladder.BidirectionalSearch;
+import com.google.engedu.wordladder.CsrWordGraph;
+import com.google.engedu.wordladder.WildcardWordGraph;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CsrWordGraphTest {
+
+    @Test
+    public void testGetNeighbors() {
+        CsrWordGraph graph = new CsrWordGraph(
+                Arrays.asList("cat", "cow", "cap", "can", "cut", "cut", "cats"));
+        assertEquals(6, graph.getWordCount());
+        assertEquals(4, graph.getEdgeCount());
+        assertEquals(3, graph.getNeighbors("cat").size());
+        assertEquals(1, graph.getNeighbors("cut").size());
+        assertEquals(0, graph.getNeighbors("cow").size());
+        assertNull(graph.getNeighbors("dog"));
+        assertTrue(graph.isWord("cats"));
+        assertFalse(graph.isWord("dog"));
+
+        int cut = graph.getId("cut");
+        assertEquals("cut", graph.getWord(cut));
+        assertEquals(CsrWordGraph.NONE, graph.getId("dog"));
+        assertEquals(graph.getFirstEdge(cut) + 1, graph.getFirstEdge(cut + 1));
+        assertEquals("cat", graph.getWord(graph.getTarget(graph.getFirstEdge(cut))));
+    }
+
+    /**
+     * Compares the ladders to those of BidirectionalSearch on a WildcardWordGraph, reusing each
+     * CsrWordGraph for many searches.
+     */
+    @Test
+    public void testFindPath() {
+        Random random = new Random(0);
+        for (int round = 0; round < 20; round++) {
+            List<String> words = new ArrayList<>();
+            for (char a = 'a'; a <= 'd'; a++) {
+                for (char b = 'a'; b <= 'd'; b++) {
+                    for (char c = 'a'; c <= 'd'; c++) {
+                        if (random.nextInt(3) == 0) {
+                            words.add("" + a + b + c);
+                        }
+                    }
+                }
+            }
+            CsrWordGraph graph = new CsrWordGraph(words);
+            WildcardWordGraph expectedGraph = new WildcardWordGraph(words);
+            BidirectionalSearch expected = new BidirectionalSearch(expectedGraph);
+            for (String word : words) {
+                assertEquals(new HashSet<>(expectedGraph.getNeighbors(word)),
+                        new HashSet<>(graph.getNeighbors(word)));
+            }
+            for (String start : words) {
+                for (String end : words) {
+                    int maxSteps = 1 + random.nextInt(6);
+                    List<String> path = graph.findPath(start, end, maxSteps);
+                    List<String> expectedPath = expected.findPath(start, end, maxSteps);
+                    if (expectedPath == null) {
+                        assertNull(path);
+                        continue;
+                    }
+                    assertEquals(expectedPath.size(), path.size());
+                    assertEquals(start, path.get(0));
+                    assertEquals(end, path.get(path.size() - 1));
+                    for (int i = 1; i < path.size(); i++) {
+                        assertTrue(graph.getNeighbors(path.get(i - 1)).contains(path.get(i)));
+                    }
+                }
+            }
+        }
+        assertNull(new CsrWordGraph(Arrays.asList("cat")).findPath("cat", "cot", 6));
+    }
+
+    @Test
+    public void testFindPathAStar() {
+        Random random = new Random(0);
+        for (int round = 0; round < 20; round++) {
+            List<String> words = new ArrayList<>();
+            for (char a = 'a'; a <= 'd'; a++) {
+                for (char b = 'a'; b <= 'd'; b++) {
+                    for (char c = 'a'; c <= 'd'; c++) {
+                        if (random.nextInt(3) == 0) {
+                            words.add("" + a + b + c);
+                        }
+                    }
+                }
+            }
+            CsrWordGraph graph = new CsrWordGraph(words);
+            for (String start : words) {
+                for (String end : words) {
+                    int maxSteps = 1 + random.nextInt(6);
+                    List<String> path = graph.findPathAStar(start, end, maxSteps);
+                    List<String> expectedPath = graph.findPath(start, end, maxSteps);
+                    if (expectedPath == null) {
+                        assertNull(path);
+                        continue;
+                    }
+                    assertEquals(expectedPath.size(), path.size());
+                    assertEquals(start, path.get(0));
+                    assertEquals(end, path.get(path.size() - 1));
+                    for (int i = 1; i < path.size(); i++) {
+                        assertTrue(graph.getNeighbors(path.get(i - 1)).contains(path.get(i)));
+                    }
+                }
+            }
+        }
+        assertNull(new CsrWordGraph(Arrays.asList("cat", "cats")).findPathAStar("cat", "cats", 6));
+    }
+
+    @Test
+    public void testAStarExpandsFewerWords() {
+        // Both aaa and ddd have many neighbors, but only the ladder between them gets closer.
+        List<String> words = new ArrayList<>(Arrays.asList("aaa", "daa", "dda", "ddd"));
+        for (char c = 'e'; c <= 'z'; c++) {
+            words.add("aa" + c);
+            words.add("a" + c + "a");
+            words.add("dd" + c);
+            words.add("d" + c + "d");
+        }
+        CsrWordGraph graph = new CsrWordGraph(words);
+        assertEquals(4, graph.findPathAStar("aaa", "ddd", 6).size());
+        assertEquals(3, graph.getLastExpandedCount());
+        assertEquals(4, graph.findPath("aaa", "ddd", 6).size());
+        assertTrue(graph.getLastExpandedCount() > 40);
+        assertNull(graph.findPathAStar("aaa", "ddd", 2));
+        assertEquals(0, graph.getLastExpandedCount());
+    }
+}
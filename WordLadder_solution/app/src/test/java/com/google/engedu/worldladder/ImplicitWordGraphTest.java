@@ -0,0 +1,111 @@
+/*
+ *  Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.google.engedu.worldladder;
+
+import com.google.engedu.wordladder.SimpleWordGraph;
+import com.google.engedu.wordladder.ImplicitWordGraph;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ImplicitWordGraphTest {
+
+    @Test
+    public void testGetNeighbors() {
+        ImplicitWordGraph graph = new ImplicitWordGraph();
+        graph.addWord("cat");
+        graph.addWord("cow");
+        assertEquals(0, graph.getNeighbors("cat").size());
+        assertNull(graph.getNeighbors("dog"));
+
+        graph.addWord("cap");
+        assertEquals("cat", graph.getNeighbors("cap").get(0));
+
+        graph.addWord("can");
+        assertEquals(2, graph.getNeighbors("cat").size());
+        assertEquals(2, graph.getNeighbors("can").size());
+        assertEquals(2, graph.getNeighbors("cap").size());
+
+        graph.addWord("cut");
+        // Adding a word twice changes nothing.
+        graph.addWord("cut");
+        assertEquals(3, graph.getNeighbors("cat").size());
+        assertEquals(1, graph.getNeighbors("cut").size());
+        assertEquals(2, graph.getNeighbors("can").size());
+
+        // Words of different lengths are never neighbors.
+        graph.addWord("cats");
+        graph.addWord("ca");
+        assertEquals(3, graph.getNeighbors("cat").size());
+        assertEquals(0, graph.getNeighbors("ca").size());
+        assertFalse(graph.isWord(""));
+        assertFalse(graph.isWord("catsup"));
+    }
+
+    @Test
+    public void testLettersOutsideTheAlphabet() {
+        ImplicitWordGraph graph = new ImplicitWordGraph();
+        graph.addWord("abb\u00e9");
+        graph.addWord("abbe");
+        graph.addWord("abbey");
+        assertEquals("abbe", graph.getNeighbors("abb\u00e9").get(0));
+        assertEquals("abb\u00e9", graph.getNeighbors("abbe").get(0));
+        assertEquals(0, graph.getNeighbors("abbey").size());
+    }
+
+    /**
+     * Compares the neighbors to those of a SimpleWordGraph, with words added both all at once
+     * and in between queries.
+     */
+    @Test
+    public void testMatchesSimpleWordGraph() {
+        Random random = new Random(0);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            char[] letters = new char[2 + random.nextInt(3)];
+            for (int j = 0; j < letters.length; j++) {
+                letters[j] = (char) ('a' + random.nextInt(6));
+            }
+            words.add(new String(letters));
+        }
+        SimpleWordGraph expected = new SimpleWordGraph();
+        ImplicitWordGraph added = new ImplicitWordGraph();
+        for (String word : words) {
+            if (!expected.isWord(word)) {
+                expected.addWord(word);
+            }
+            added.addWord(word);
+            if (word.length() == 2) {
+                assertTrue(added.isWord(word));
+            }
+        }
+        ImplicitWordGraph built = new ImplicitWordGraph(words);
+
+        for (String word : words) {
+            HashSet<String> neighbors = new HashSet<>(expected.getNeighbors(word));
+            assertEquals(neighbors.size(), added.getNeighbors(word).size());
+            assertEquals(neighbors, new HashSet<>(added.getNeighbors(word)));
+            assertEquals(neighbors, new HashSet<>(built.getNeighbors(word)));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ *  Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.google.engedu.worldladder;
+
+import com.google.engedu.wordladder.BidirectionalSearch;
+import com.google.engedu.wordladder.CsrWordGraph;
+import com.google.engedu.wordladder.LadderIndex;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class LadderIndexTest {
+    private List<String> words = Arrays.asList("cold", "cord", "card", "ward", "warm", "word",
+            "dog", "dot", "cat");
+
+    private LadderIndex buildIndex(CsrWordGraph graph, int threadCount) {
+        return new LadderIndex.Builder()
+                .setThreadCount(threadCount)
+                .setSourceCount(100)
+                .setMaxDistance(3)
+                .setRandom(new Random(0))
+                .build(graph);
+    }
+
+    @Test
+    public void testPairsAreAtTheirDistance() {
+        CsrWordGraph graph = new CsrWordGraph(words);
+        LadderIndex index = buildIndex(graph, 1);
+        BidirectionalSearch search = new BidirectionalSearch(graph);
+
+        assertEquals(3, index.getMaxDistance());
+        // Every word with a neighbor is a source, so each pair is found from both ends.
+        assertEquals(2 * 7, index.getPairCount(1));
+        assertEquals(0, index.getPairCount(4));
+        assertNull(index.getRandomPair(4, new Random(0)));
+        Random random = new Random(0);
+        for (int distance = 1; distance <= 3; distance++) {
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i < 100; i++) {
+                String[] pair = index.getRandomPair(distance, random);
+                seen.add(pair[0] + ":" + pair[1]);
+                assertEquals(distance + 1,
+                        search.findPath(pair[0], pair[1], Integer.MAX_VALUE).size());
+            }
+            assertEquals(index.getPairCount(distance), seen.size());
+        }
+    }
+
+    @Test
+    public void testComponents() {
+        LadderIndex index = buildIndex(new CsrWordGraph(words), 1);
+        assertEquals(3, index.getComponentCount());
+        assertTrue(index.areConnected("cold", "warm"));
+        assertTrue(index.areConnected("dot", "dog"));
+        assertFalse(index.areConnected("cold", "dog"));
+        assertFalse(index.areConnected("cat", "dog"));
+        assertFalse(index.areConnected("cat", "cot"));
+    }
+
+    @Test
+    public void testSameForAnyThreadCount() throws IOException {
+        List<String> manyWords = new ArrayList<>();
+        for (char a = 'a'; a <= 'f'; a++) {
+            for (char b = 'a'; b <= 'f'; b++) {
+                for (char c = 'a'; c <= 'f'; c += 2) {
+                    manyWords.add("" + a + b + c);
+                }
+            }
+        }
+        CsrWordGraph graph = new CsrWordGraph(manyWords);
+        ByteArrayOutputStream single = new ByteArrayOutputStream();
+        buildIndex(graph, 1).write(single);
+        ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+        buildIndex(graph, 3).write(parallel);
+        assertArrayEquals(single.toByteArray(), parallel.toByteArray());
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        CsrWordGraph graph = new CsrWordGraph(words);
+        LadderIndex index = buildIndex(graph, 1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.write(out);
+        LadderIndex read = LadderIndex.read(graph, new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(index.getMaxDistance(), read.getMaxDistance());
+        for (int distance = 1; distance <= 3; distance++) {
+            assertEquals(index.getPairCount(distance), read.getPairCount(distance));
+        }
+        assertEquals(3, read.getComponentCount());
+        assertTrue(read.areConnected("cold", "warm"));
+        assertArrayEquals(index.getRandomPair(2, new Random(5)),
+                read.getRandomPair(2, new Random(5)));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadForAnotherGraph() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        buildIndex(new CsrWordGraph(words), 1).write(out);
+        LadderIndex.read(new CsrWordGraph(Arrays.asList("cat", "cot")),
+                new ByteArrayInputStream(out.toByteArray()));
+    }
+}
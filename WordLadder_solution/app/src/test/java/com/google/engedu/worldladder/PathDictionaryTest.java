@@ -49,6 +49,9 @@ public class PathDictionaryTest {
         // Items of different length have no path.
         assertNull(dict.findPath("cat", "gain"));
 
+        // Words that aren't in the dictionary have no path.
+        assertNull(dict.findPath("cot", "cat"));
+
         // An item is not a neighbor of itself.
         assertNull(dict.findPath("cat", "cat"));
 
@@ -67,4 +70,24 @@ public class PathDictionaryTest {
         result = dict.findPath("gain", "fire");
         assertEquals(7, result.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSearchModes() {
+        PathDictionary dict = new PathDictionary(new ArrayList<>(Arrays.asList(wordsArray)));
+        for (PathDictionary.SearchMode mode : PathDictionary.SearchMode.values()) {
+            assertEquals(7, dict.findPath("gain", "fire", 6, mode).size());
+            assertNull(dict.findPath("gain", "fire", 5, mode));
+            assertEquals(Arrays.asList("can", "cat"), dict.findPath("can", "cat", 1, mode));
+            assertNull(dict.findPath("cat", "gain", 6, mode));
+            // Calls that can't have a ladder don't search.
+            assertEquals(3, dict.getSearchStats(mode).getSearchCount());
+            assertTrue(dict.getSearchStats(mode).getExpandedCount() > 0);
+        }
+
+        dict.setSearchMode(PathDictionary.SearchMode.A_STAR);
+        dict.getSearchStats(PathDictionary.SearchMode.A_STAR).reset();
+        assertEquals(7, dict.findPath("gain", "fire").size());
+        assertEquals(1, dict.getSearchStats(PathDictionary.SearchMode.A_STAR).getSearchCount());
+        assertEquals(3, dict.getSearchStats(PathDictionary.SearchMode.BFS).getSearchCount());
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ *  Copyright 2016 Google Inc. All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.google.engedu.worldladder;
+
+import com.google.engedu.wordladder.CsrWordGraph;
+import com.google.engedu.wordladder.ShortestLadders;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ShortestLaddersTest {
+    private CsrWordGraph graph = new CsrWordGraph(Arrays.asList("cold", "cord", "card", "ward",
+            "warm", "word", "worm", "wore", "dog"));
+
+    @Test
+    public void testIterator() {
+        ShortestLadders ladders = ShortestLadders.find(graph, "cold", "warm", 6);
+        assertEquals(4, ladders.getStepCount());
+        assertEquals(3, ladders.getLadderCount());
+        Iterator<List<String>> iterator = ladders.iterator();
+        assertEquals(Arrays.asList("cold", "cord", "card", "ward", "warm"), iterator.next());
+        assertEquals(Arrays.asList("cold", "cord", "word", "ward", "warm"), iterator.next());
+        assertEquals(Arrays.asList("cold", "cord", "word", "worm", "warm"), iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testIsShortestLadder() {
+        ShortestLadders ladders = ShortestLadders.find(graph, "cold", "warm", 6);
+        assertTrue(ladders.isShortestLadder(Arrays.asList("cold", "cord", "word", "worm", "warm")));
+        assertTrue(ladders.isShortestLadder(Arrays.asList("cold", "cord", "card", "ward", "warm")));
+        // Words of shortest ladders, but not neighbors.
+        assertFalse(ladders.isShortestLadder(Arrays.asList("cold", "cord", "card", "worm",
+                "warm")));
+        assertFalse(ladders.isShortestLadder(Arrays.asList("cold", "cord", "word", "wore",
+                "warm")));
+        assertFalse(ladders.isShortestLadder(Arrays.asList("cold", "cord", "word", "warm")));
+        assertFalse(ladders.isShortestLadder(Arrays.asList("cord", "word", "worm", "warm")));
+        assertFalse(ladders.isShortestLadder(Arrays.asList("cold", "cord", null, "worm",
+                "warm")));
+    }
+
+    @Test
+    public void testNoLadders() {
+        assertNull(ShortestLadders.find(graph, "cold", "warm", 3));
+        assertNull(ShortestLadders.find(graph, "cold", "dog", 6));
+        assertNull(ShortestLadders.find(graph, "cold", "cold", 6));
+        assertNull(ShortestLadders.find(graph, "cold", "cone", 6));
+        assertNull(ShortestLadders.find(graph, null, "warm", 6));
+        assertEquals(1, ShortestLadders.find(graph, "cold", "cord", 1).getLadderCount());
+    }
+
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(ShortestLadders.find(graph, "cold", "warm", 6));
+        out.close();
+        ShortestLadders ladders = (ShortestLadders) new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray())).readObject();
+        assertEquals(3, ladders.getLadderCount());
+        assertTrue(ladders.isShortestLadder(Arrays.asList("cold", "cord", "word", "ward", "warm")));
+    }
+
+    /**
+     * Compares the ladders with every path of as many steps, found by brute force.
+     */
+    @Test
+    public void testAllLadders() {
+        Random random = new Random(0);
+        for (int round = 0; round < 20; round++) {
+            List<String> words = new ArrayList<>();
+            for (char a = 'a'; a <= 'd'; a++) {
+                for (char b = 'a'; b <= 'd'; b++) {
+                    for (char c = 'a'; c <= 'd'; c++) {
+                        if (random.nextInt(2) == 0) {
+                            words.add("" + a + b + c);
+                        }
+                    }
+                }
+            }
+            CsrWordGraph graph = new CsrWordGraph(words);
+            for (int i = 0; i < 20; i++) {
+                String start = words.get(random.nextInt(words.size()));
+                String end = words.get(random.nextInt(words.size()));
+                ShortestLadders ladders = ShortestLadders.find(graph, start, end, 6);
+                List<String> path = graph.findPath(start, end, 6);
+                if (path == null) {
+                    assertNull(ladders);
+                    continue;
+                }
+                Set<List<String>> expected = new HashSet<>();
+                List<String> ladder = new ArrayList<>();
+                ladder.add(start);
+                collectPaths(graph, ladder, end, path.size() - 1, expected);
+
+                Set<List<String>> actual = new HashSet<>();
+                for (List<String> found : ladders) {
+                    assertTrue(actual.add(found));
+                    assertTrue(ladders.isShortestLadder(found));
+                }
+                assertEquals(expected, actual);
+                assertEquals(expected.size(), ladders.getLadderCount());
+            }
+        }
+    }
+
+    private static void collectPaths(CsrWordGraph graph, List<String> path, String end,
+                                     int steps, Set<List<String>> paths) {
+        String last = path.get(path.size() - 1);
+        if (path.size() == steps + 1) {
+            if (last.equals(end)) {
+                paths.add(new ArrayList<>(path));
+            }
+            return;
+        }
+        for (String neighbor : graph.getNeighbors(last)) {
+            path.add(neighbor);
+            collectPaths(graph, path, end, steps, paths);
+            path.remove(path.size() - 1);
+        }
+    }
+}